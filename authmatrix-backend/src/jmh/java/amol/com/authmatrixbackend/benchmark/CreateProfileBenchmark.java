@@ -0,0 +1,61 @@
+package amol.com.authmatrixbackend.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import amol.com.authmatrixbackend.AuthMatrixApplication;
+import amol.com.authmatrixbackend.io.ProfileRequest;
+import amol.com.authmatrixbackend.io.ProfileResponse;
+import amol.com.authmatrixbackend.service.ProfileService;
+
+// Registration through the real service, repository and transaction stack on the embedded H2 database
+// (datasource settings come from the test application.properties). A low hashing cost keeps BCrypt from
+// hiding the persistence cost; cost 10 shows the end-to-end figure.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateProfileBenchmark {
+
+    @Param({ "4", "10" })
+    public int cost;
+
+    ConfigurableApplicationContext context;
+    ProfileService profileService;
+    final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(AuthMatrixApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "auth.password.cost=" + cost,
+                        "auth.rate-limit.enabled=false",
+                        "logging.level.root=WARN",
+                        "spring.jpa.properties.hibernate.generate_statistics=false")
+                .run();
+        profileService = context.getBean(ProfileService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProfileResponse createProfile() {
+        long n = sequence.incrementAndGet();
+        return profileService.createProfile(ProfileRequest.builder()
+                .name("Bench User " + n)
+                .email("bench-" + n + "@example.com")
+                .password("password-" + n)
+                .build());
+    }
+}
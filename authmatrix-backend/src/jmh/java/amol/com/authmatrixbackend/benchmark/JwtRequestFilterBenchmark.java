@@ -0,0 +1,78 @@
+package amol.com.authmatrixbackend.benchmark;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import amol.com.authmatrixbackend.config.PublicRoutes;
+import amol.com.authmatrixbackend.entity.UserEntity;
+import amol.com.authmatrixbackend.filter.JwtRequestFilter;
+import amol.com.authmatrixbackend.security.AuthMetrics;
+import amol.com.authmatrixbackend.security.LocalRevocationChannel;
+import amol.com.authmatrixbackend.security.TokenRevocationService;
+import amol.com.authmatrixbackend.security.VerifiedTokenCache;
+import amol.com.authmatrixbackend.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Full filter pass on mock requests: public routes skip token work, protected routes verify (or hit the cache)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtRequestFilterBenchmark {
+
+    @Param({ "/login", "/profile" })
+    public String uri;
+
+    @Param({ "true", "false" })
+    public boolean cacheEnabled;
+
+    @Param({ "HS256", "ES256" })
+    public String algorithm;
+
+    JwtRequestFilter filter;
+    MockHttpServletRequest request;
+    MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        JwtUtil jwtUtil = JwtUtilBenchmark.newJwtUtil(algorithm);
+        UserEntity user = UserEntity.builder()
+                .email("bench@example.com")
+                .userId(UUID.randomUUID().toString())
+                .isAccountVerified(true)
+                .build();
+        String token = jwtUtil.generateToken(user, List.of());
+
+        // Principal comes from the token, so the user details service is never called
+        filter = new JwtRequestFilter(null, jwtUtil,
+                new VerifiedTokenCache(cacheEnabled, 10_000, new SimpleMeterRegistry()),
+                new PublicRoutes(),
+                new TokenRevocationService(new LocalRevocationChannel(), 100_000, Duration.ofMinutes(5)),
+                new AuthMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(filter, "principalFromToken", true);
+
+        request = new MockHttpServletRequest("GET", uri);
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,85 @@
+package amol.com.authmatrixbackend.benchmark;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import amol.com.authmatrixbackend.security.InMemorySigningKeyStore;
+import amol.com.authmatrixbackend.security.SigningKeyRing;
+import amol.com.authmatrixbackend.util.JwtUtil;
+import amol.com.authmatrixbackend.util.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+// Compares the cached key/parser single-pass verification with the previous per-call rebuild
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long!!";
+
+    @Param({"HS256", "ES256"})
+    String algorithm;
+
+    JwtUtil jwtUtil;
+    UserDetails userDetails;
+    String token;
+    String legacyToken;
+
+    @Setup
+    public void setup() {
+        jwtUtil = newJwtUtil(algorithm);
+        userDetails = new User("bench@example.com", "", java.util.List.of());
+        token = jwtUtil.generateToken(userDetails);
+        legacyToken = newJwtUtil("HS256").generateToken(userDetails);
+    }
+
+    static JwtUtil newJwtUtil(String algorithm) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "SECRET_KEY", SECRET);
+        ReflectionTestUtils.setField(util, "algorithm", algorithm);
+        ReflectionTestUtils.setField(util, "accessTokenTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(util, "keyRing", new SigningKeyRing(
+                new InMemorySigningKeyStore(), Clock.systemUTC(), Duration.ofDays(30), Duration.ofDays(1)));
+        ReflectionTestUtils.invokeMethod(util, "init");
+        return util;
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        VerifiedToken verified = jwtUtil.verify(token);
+        return jwtUtil.validateToken(verified, userDetails);
+    }
+
+    // Previous behaviour (HS256 only): key and parser rebuilt per call, token parsed once for the subject and again for expiry
+    @Benchmark
+    public boolean validateLegacy() {
+        String email = legacyClaims(legacyToken).getSubject();
+        boolean expired = legacyClaims(legacyToken).getExpiration().before(new Date());
+        return email.equals(userDetails.getUsername()) && !expired;
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+            .build()
+            .parseClaimsJws(token)
+            .getBody();
+    }
+}
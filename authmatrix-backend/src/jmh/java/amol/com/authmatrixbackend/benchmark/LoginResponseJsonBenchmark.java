@@ -0,0 +1,63 @@
+package amol.com.authmatrixbackend.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import amol.com.authmatrixbackend.entity.UserEntity;
+import amol.com.authmatrixbackend.io.AuthResponse;
+
+// Serialization of the /login body: the map the controller returns today vs. the typed AuthResponse DTO
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoginResponseJsonBenchmark {
+
+    ObjectMapper objectMapper;
+    ObjectWriter authResponseWriter;
+    Map<String, Object> body;
+    AuthResponse authResponse;
+
+    @Setup
+    public void setup() {
+        // Same defaults Spring MVC applies to its message converter
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        authResponseWriter = objectMapper.writerFor(AuthResponse.class);
+
+        UserEntity user = UserEntity.builder()
+                .email("bench@example.com")
+                .name("Bench User")
+                .userId(UUID.randomUUID().toString())
+                .isAccountVerified(true)
+                .build();
+        String jwt = JwtUtilBenchmark.newJwtUtil("ES256").generateToken(user, List.of());
+
+        body = new HashMap<>();
+        body.put("email", user.getEmail());
+        body.put("name", user.getName());
+        body.put("isAccountVerified", user.getIsAccountVerified());
+        body.put("jwt", jwt);
+        authResponse = new AuthResponse(user.getEmail(), jwt, user.getName(), true);
+    }
+
+    @Benchmark
+    public byte[] map() throws Exception {
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] dto() throws Exception {
+        return authResponseWriter.writeValueAsBytes(authResponse);
+    }
+}
@@ -0,0 +1,50 @@
+package amol.com.authmatrixbackend.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import amol.com.authmatrixbackend.config.PublicRoutes;
+
+// Public-route check: precompiled trie vs. the previous prefix stream scan plus per-request regex
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicRoutesBenchmark {
+
+    // "/" is matched exactly here; as a prefix it matched every URI and short-circuited the regex
+    private static final List<String> LEGACY_PUBLIC_URL_PREFIXES = List.of(
+            "/index.html", "/favicon.ico", "/favicon.png", "/assets/",
+            "/manifest.json", "/logo192.png", "/logo512.png",
+            "/register", "/login", "/verify-otp", "/is-authenticated",
+            "/send-reset-otp", "/reset-password", "/logout", "/debug-auth");
+
+    @Param({ "/profile", "/login", "/assets/index-CoGDqwA0.js", "/some/deep/route" })
+    public String uri;
+
+    PublicRoutes publicRoutes;
+
+    @Setup
+    public void setup() {
+        publicRoutes = new PublicRoutes();
+    }
+
+    @Benchmark
+    public void registry(Blackhole blackhole) {
+        blackhole.consume(publicRoutes.skipsAuthentication("GET", uri));
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        boolean isPublic = uri.equals("/")
+                || LEGACY_PUBLIC_URL_PREFIXES.stream()
+                        .anyMatch(prefix -> uri.equals(prefix) || uri.startsWith(prefix))
+                || uri.matches(".*\\.(js|css|png|svg|woff2|ttf)$");
+        blackhole.consume(isPublic);
+    }
+}
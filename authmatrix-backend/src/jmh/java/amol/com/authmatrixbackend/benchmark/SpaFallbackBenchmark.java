@@ -0,0 +1,96 @@
+package amol.com.authmatrixbackend.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import amol.com.authmatrixbackend.AuthMatrixApplication;
+import amol.com.authmatrixbackend.controller.FrontendController;
+
+// GET of a client-side route over real HTTP, filter chain included.
+// direct: FrontendController's route table under PathPatternParser, index.html written from memory.
+// forward: the previous setup, i.e. ant_path_matcher, the three regex patterns and a servlet forward to /index.html
+// that the resource handler then serves from the classpath.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpaFallbackBenchmark {
+
+    @Param({ "direct", "forward" })
+    public String mode;
+
+    @Param({ "/login", "/reset-password" })
+    public String path;
+
+    ConfigurableApplicationContext context;
+    HttpClient http;
+    HttpRequest request;
+
+    @Setup
+    public void setup() throws Exception {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--auth.rate-limit.enabled=false",
+                "--logging.level.root=WARN",
+                "--spring.jpa.properties.hibernate.generate_statistics=false"));
+        if ("forward".equals(mode)) {
+            args.add("--spring.mvc.pathmatch.matching-strategy=ant_path_matcher");
+        }
+        context = new SpringApplicationBuilder(AuthMatrixApplication.class).run(args.toArray(String[]::new));
+        if ("forward".equals(mode)) {
+            installLegacyForward(context.getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class));
+        }
+
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create(
+                "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port") + path)).GET().build();
+        int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException(mode + " " + path + " returned " + status);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] load() throws Exception {
+        return http.send(request, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    // Swaps FrontendController's mappings for the original regex mappings; done after startup because the old
+    // patterns only parse under ant_path_matcher and "/" would otherwise be mapped twice
+    private static void installLegacyForward(RequestMappingHandlerMapping mapping) throws NoSuchMethodException {
+        List<RequestMappingInfo> current = mapping.getHandlerMethods().entrySet().stream()
+                .filter(entry -> entry.getValue().getBeanType() == FrontendController.class)
+                .map(entry -> entry.getKey())
+                .toList();
+        current.forEach(mapping::unregisterMapping);
+        RequestMappingInfo legacy = RequestMappingInfo
+                .paths("/", "/{x:[\\w\\-]+}", "/{x:^(?!api$).*$}/**/{y:[\\w\\-]+}")
+                .options(mapping.getBuilderConfiguration())
+                .build();
+        mapping.registerMapping(legacy, new LegacyFrontendController(), LegacyFrontendController.class.getMethod("forward"));
+    }
+
+    public static class LegacyFrontendController {
+        public String forward() {
+            return "forward:/index.html";
+        }
+    }
+}
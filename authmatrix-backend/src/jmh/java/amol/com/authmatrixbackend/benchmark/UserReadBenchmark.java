@@ -0,0 +1,85 @@
+package amol.com.authmatrixbackend.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import amol.com.authmatrixbackend.AuthMatrixApplication;
+import amol.com.authmatrixbackend.entity.UserEntity;
+import amol.com.authmatrixbackend.repository.UserRepository;
+import amol.com.authmatrixbackend.repository.UserSummary;
+import jakarta.persistence.EntityManager;
+
+// User reads on the embedded H2 database, one email (profile, login) or 50 (an introspection batch).
+// entity: a full UserEntity query in a read-write transaction, i.e. managed entities with dirty-checking
+// snapshots, as the read paths ran under open-in-view; read-model: UserSummary from UserRepository.
+// Run with -prof gc to compare allocation per read.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserReadBenchmark {
+
+    @Param({ "entity", "read-model" })
+    public String mode;
+
+    @Param({ "1", "50" })
+    public int users;
+
+    ConfigurableApplicationContext context;
+    UserRepository userRepository;
+    EntityManager entityManager;
+    TransactionTemplate transactionTemplate;
+    List<String> emails = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(AuthMatrixApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN", "--spring.jpa.properties.hibernate.generate_statistics=false");
+        userRepository = context.getBean(UserRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        for (int i = 0; i < users; i++) {
+            String email = "read-" + UUID.randomUUID() + "@example.com";
+            userRepository.save(UserEntity.builder()
+                    .email(email)
+                    .userId(UUID.randomUUID().toString())
+                    .name("Read Bench " + i)
+                    .password("$2a$10$abcdefghijklmnopqrstuuNWBqvh0bcH9S8yv4N3Yg7RVbbDpVnvW")
+                    .isAccountVerified(true)
+                    .build());
+            emails.add(email);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserSummary> read() {
+        if ("read-model".equals(mode)) {
+            return users == 1
+                    ? List.of(userRepository.findSummaryByEmail(emails.get(0)).orElseThrow())
+                    : userRepository.findSummariesByEmailIn(emails);
+        }
+        return transactionTemplate.execute(status -> entityManager
+                .createQuery("select u from UserEntity u where u.email in :emails", UserEntity.class)
+                .setParameter("emails", emails)
+                .getResultList()
+                .stream()
+                .map(UserSummary::of)
+                .toList());
+    }
+}
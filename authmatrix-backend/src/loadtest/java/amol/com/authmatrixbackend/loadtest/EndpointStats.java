@@ -0,0 +1,59 @@
+package amol.com.authmatrixbackend.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+// Latency histogram (microsecond resolution, up to one minute) plus error count for one endpoint
+final class EndpointStats {
+
+    private final String name;
+    private final Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    void record(long nanos, boolean success) {
+        latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), latency.getHighestTrackableValue()));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    void reset() {
+        latency.reset();
+        errors.reset();
+    }
+
+    String name() {
+        return name;
+    }
+
+    Map<String, Object> summary(double seconds) {
+        long count = latency.getTotalCount();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("endpoint", name);
+        summary.put("requests", count);
+        summary.put("throughputPerSecond", round(count / seconds));
+        summary.put("errorRate", count == 0 ? 0.0 : round((double) errors.sum() / count));
+        summary.put("p50Millis", millis(latency.getValueAtPercentile(50.0)));
+        summary.put("p99Millis", millis(latency.getValueAtPercentile(99.0)));
+        summary.put("p999Millis", millis(latency.getValueAtPercentile(99.9)));
+        summary.put("maxMillis", millis(latency.getMaxValue()));
+        return summary;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
@@ -0,0 +1,260 @@
+package amol.com.authmatrixbackend.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.store.StoredMessage;
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetup;
+
+import amol.com.authmatrixbackend.AuthMatrixApplication;
+
+// Self-contained load run: the real application on an embedded H2 database, GreenMail as the SMTP sink, and
+// N virtual users looping register -> login -> send-otp -> verify-otp -> profile -> logout over HTTP.
+// Login comes before send-otp because sending the verification OTP requires an authenticated user.
+//
+//   mvn -Ploadtest test-compile exec:exec -Dloadtest.users=64 -Dloadtest.duration=PT2M
+//
+// Application properties are passed through loadtest.jvm-args, e.g. -Dloadtest.jvm-args=-Dauth.password.cost=12
+public final class LoadTestHarness {
+
+    private static final Pattern OTP = Pattern.compile("Your OTP is: (\\d{6})");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final int users;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Duration otpTimeout;
+    private final Path resultFile;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder journeys = new LongAdder();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+
+    private GreenMail greenMail;
+    private HttpClient http;
+    private String baseUrl;
+
+    private LoadTestHarness() {
+        users = Integer.getInteger("loadtest.users", 32);
+        warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+        duration = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+        otpTimeout = Duration.parse(System.getProperty("loadtest.otp-timeout", "PT30S"));
+        resultFile = Path.of(System.getProperty("loadtest.result", "target/loadtest-result.json"));
+        for (String endpoint : List.of("register", "login", "send-otp", "otp-delivery", "verify-otp", "profile", "logout")) {
+            stats.put(endpoint, new EndpointStats(endpoint));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Devtools would relaunch main() in a restart class loader and keep the JVM alive afterwards
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        new LoadTestHarness().run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        int smtpPort = freePort();
+        greenMail = new GreenMail(new ServerSetup(smtpPort, "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+        greenMail.start();
+
+        // Passed as command-line arguments so they win over the test application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AuthMatrixApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--spring.jpa.open-in-view=false",
+                        "--spring.mail.host=127.0.0.1",
+                        "--spring.mail.port=" + smtpPort,
+                        "--mail.outbox.enabled=true",
+                        "--mail.outbox.poll-interval=PT0.05S",
+                        // Every virtual user shares one source IP
+                        "--auth.rate-limit.enabled=false",
+                        "--logging.level.root=WARN");
+        try {
+            baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+            http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            System.out.printf("Load test: %d users, %s warmup, %s measured, against %s%n", users, warmup, duration, baseUrl);
+            long deadline = System.nanoTime() + warmup.plus(duration).toNanos();
+            ExecutorService workers = Executors.newFixedThreadPool(users);
+            for (int i = 0; i < users; i++) {
+                workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        journey();
+                    }
+                });
+            }
+
+            TimeUnit.NANOSECONDS.sleep(warmup.toNanos());
+            stats.values().forEach(EndpointStats::reset);
+            journeys.reset();
+            long measuredStart = System.nanoTime();
+
+            workers.shutdown();
+            workers.awaitTermination(duration.toSeconds() + otpTimeout.toSeconds() + 60, TimeUnit.SECONDS);
+            double seconds = Math.min(System.nanoTime() - measuredStart, duration.toNanos()) / 1e9;
+            report(seconds);
+        } finally {
+            context.close();
+            greenMail.stop();
+        }
+    }
+
+    private void journey() {
+        String email = "load-" + runId + "-" + sequence.incrementAndGet() + "@loadtest.local";
+        String password = "password-" + email.hashCode();
+        try {
+            if (call("register", post("/register", null,
+                    Map.of("name", "Load User", "email", email, "password", password))) == null) {
+                return;
+            }
+            String login = call("login", post("/login", null, Map.of("email", email, "password", password)));
+            if (login == null) {
+                return;
+            }
+            String jwt = MAPPER.readTree(login).path("jwt").asText();
+            if (call("send-otp", post("/send-otp", jwt, null)) == null) {
+                return;
+            }
+            String otp = awaitOtp(email);
+            if (otp == null
+                    || call("verify-otp", post("/verify-otp", jwt, Map.of("otp", otp))) == null
+                    || call("profile", request("/profile", jwt).GET().build()) == null) {
+                return;
+            }
+            if (call("logout", post("/logout", jwt, null)) != null) {
+                journeys.increment();
+            }
+        } catch (IOException e) {
+            // Unparseable login body; the journey is abandoned
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Returns the response body on 2xx, null on any failure
+    private String call(String endpoint, HttpRequest request) throws InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response = null;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            // Connection failures count as errors
+        }
+        boolean success = response != null && response.statusCode() / 100 == 2;
+        stats.get(endpoint).record(System.nanoTime() - start, success);
+        return success ? response.body() : null;
+    }
+
+    // Time from send-otp returning until the outbox dispatcher has delivered the email to the SMTP sink
+    private String awaitOtp(String email) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + otpTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            String otp = findOtp(email);
+            if (otp != null) {
+                stats.get("otp-delivery").record(System.nanoTime() - start, true);
+                return otp;
+            }
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        stats.get("otp-delivery").record(System.nanoTime() - start, false);
+        return null;
+    }
+
+    private String findOtp(String email) {
+        GreenMailUser user = greenMail.getUserManager().getUserByEmail(email);
+        if (user == null) {
+            return null;
+        }
+        try {
+            for (StoredMessage message : greenMail.getManagers().getImapHostManager().getInbox(user).getMessages()) {
+                Matcher matcher = OTP.matcher(GreenMailUtil.getBody(message.getMimeMessage()));
+                if (matcher.find()) {
+                    return matcher.group(1);
+                }
+            }
+        } catch (Exception e) {
+            return null;
+        }
+        return null;
+    }
+
+    private HttpRequest post(String path, String jwt, Map<String, String> json) {
+        try {
+            HttpRequest.BodyPublisher body = json == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(json));
+            return request(path, jwt).header("Content-Type", "application/json").POST(body).build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, String jwt) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (jwt != null) {
+            builder.header("Authorization", "Bearer " + jwt);
+        }
+        return builder;
+    }
+
+    private void report(double seconds) throws IOException {
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        System.out.printf("%n%-14s %10s %10s %9s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (EndpointStats endpoint : stats.values()) {
+            Map<String, Object> summary = endpoint.summary(seconds);
+            endpoints.add(summary);
+            System.out.printf("%-14s %10d %10.1f %8.2f%% %10.2f %10.2f %10.2f %10.2f%n",
+                    endpoint.name(), summary.get("requests"), summary.get("throughputPerSecond"),
+                    (double) summary.get("errorRate") * 100, summary.get("p50Millis"), summary.get("p99Millis"),
+                    summary.get("p999Millis"), summary.get("maxMillis"));
+        }
+        System.out.printf("%ncompleted journeys: %d (%.1f/s)%n", journeys.sum(), journeys.sum() / seconds);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("users", users);
+        result.put("measuredSeconds", seconds);
+        result.put("journeys", journeys.sum());
+        result.put("endpoints", endpoints);
+        Files.createDirectories(resultFile.toAbsolutePath().getParent());
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(resultFile.toFile(), result);
+        System.out.println("results written to " + resultFile);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package amol.com.authmatrixbackend.config;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// Single registry of routes that do not require authentication, shared by SecurityConfig and JwtRequestFilter.
+// Compiled once into a character trie (exact paths and prefixes) plus an extension list; lookups do not allocate.
+@Component
+public class PublicRoutes {
+
+    public enum Kind {
+        // Bundled SPA files; no token processing at all
+        STATIC,
+        // Public endpoints that never look at the caller's identity
+        ANONYMOUS,
+        // Public endpoints that still use the caller's identity when a token is present
+        OPTIONAL_AUTH
+    }
+
+    private static final List<String> STATIC_PATHS = List.of(
+            "/index.html", "/favicon.ico", "/favicon.png",
+            "/manifest.json", "/logo192.png", "/logo512.png");
+
+    private static final List<String> STATIC_PREFIXES = List.of("/assets/");
+
+    private static final List<String> STATIC_EXTENSIONS = List.of("js", "css", "png", "svg", "woff2", "ttf");
+
+    private static final List<String> ANONYMOUS_PATHS = List.of(
+            "/register", "/login", "/refresh", "/send-reset-otp", "/reset-password",
+            "/.well-known/jwks.json", "/introspect", "/actuator/health", "/actuator/prometheus");
+
+    private static final List<String> OPTIONAL_AUTH_PATHS = List.of(
+            "/verify-otp", "/is-authenticated", "/logout", "/debug-auth");
+
+    private static final String ACTUATOR_PREFIX = "/actuator/";
+
+    private final Node root = new Node();
+    private final char[][] extensions;
+    // Paths with a GET handler, registered by FrontendController once the handler mappings are built; until then
+    // no request is treated as a client route
+    private volatile Set<String> apiReadPaths;
+
+    public PublicRoutes() {
+        STATIC_PATHS.forEach(path -> insert(path, Kind.STATIC, false));
+        STATIC_PREFIXES.forEach(prefix -> insert(prefix, Kind.STATIC, true));
+        ANONYMOUS_PATHS.forEach(path -> insert(path, Kind.ANONYMOUS, false));
+        OPTIONAL_AUTH_PATHS.forEach(path -> insert(path, Kind.OPTIONAL_AUTH, false));
+        extensions = STATIC_EXTENSIONS.stream()
+                .map(extension -> ("." + extension.toLowerCase(Locale.ROOT)).toCharArray())
+                .toArray(char[][]::new);
+    }
+
+    public void registerApiReadPaths(Collection<String> paths) {
+        apiReadPaths = Set.copyOf(paths);
+    }
+
+    // Returns the matching route kind, or null for routes that require authentication
+    public Kind match(HttpServletRequest request) {
+        return match(request.getMethod(), request.getRequestURI(), request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    public Kind match(String method, String uri) {
+        return match(method, uri, null);
+    }
+
+    // Browser navigations to client-side routes of the React app are STATIC: FrontendController answers them with
+    // index.html, so any route added to App.jsx reloads without a server change
+    public Kind match(String method, String uri, String accept) {
+        if (uri == null) {
+            return null;
+        }
+        return isClientRoute(method, uri, accept) ? Kind.STATIC : matchRegistered(uri);
+    }
+
+    // A GET or HEAD that accepts HTML, has no file extension and is not an API or actuator path
+    public boolean isClientRoute(HttpServletRequest request) {
+        return isClientRoute(request.getMethod(), request.getRequestURI(), request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    public boolean isClientRoute(String method, String uri, String accept) {
+        Set<String> apiPaths = apiReadPaths;
+        return apiPaths != null
+                && uri != null
+                && uri.startsWith("/")
+                && (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method))
+                && accept != null && accept.contains("text/html")
+                && uri.indexOf('.', uri.lastIndexOf('/')) < 0
+                && !uri.startsWith(ACTUATOR_PREFIX)
+                && !apiPaths.contains(uri);
+    }
+
+    private Kind matchRegistered(String uri) {
+        Kind prefixMatch = null;
+        Node node = root;
+        for (int i = 0; i < uri.length(); i++) {
+            node = node.child(uri.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.prefixKind != null) {
+                prefixMatch = node.prefixKind;
+            }
+            if (i == uri.length() - 1 && node.exactKind != null) {
+                return node.exactKind;
+            }
+        }
+        if (prefixMatch != null) {
+            return prefixMatch;
+        }
+        return hasStaticExtension(uri) ? Kind.STATIC : null;
+    }
+
+    // Used by JwtRequestFilter: static files and anonymous endpoints skip token processing
+    public boolean skipsAuthentication(HttpServletRequest request) {
+        return skipsAuthentication(request.getMethod(), request.getRequestURI());
+    }
+
+    public boolean skipsAuthentication(String method, String uri) {
+        Kind kind = match(method, uri);
+        return kind == Kind.STATIC || kind == Kind.ANONYMOUS;
+    }
+
+    // Used by SecurityConfig for permitAll()
+    public boolean isPublic(HttpServletRequest request) {
+        return match(request) != null;
+    }
+
+    private boolean hasStaticExtension(String uri) {
+        for (char[] extension : extensions) {
+            int offset = uri.length() - extension.length;
+            if (offset > 0 && endsWithIgnoreCase(uri, offset, extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean endsWithIgnoreCase(String uri, int offset, char[] suffix) {
+        for (int i = 0; i < suffix.length; i++) {
+            if (Character.toLowerCase(uri.charAt(offset + i)) != suffix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void insert(String route, Kind kind, boolean prefix) {
+        Node node = root;
+        for (int i = 0; i < route.length(); i++) {
+            node = node.childOrCreate(route.charAt(i));
+        }
+        if (prefix) {
+            node.prefixKind = kind;
+        } else {
+            node.exactKind = kind;
+        }
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private Kind exactKind;
+        private Kind prefixKind;
+
+        Node child(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node childOrCreate(char c) {
+            Node existing = child(c);
+            if (existing != null) {
+                return existing;
+            }
+            Node created = new Node();
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = c;
+            children[children.length - 1] = created;
+            return created;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package amol.com.authmatrixbackend.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import amol.com.authmatrixbackend.entity.UserEntity;
+import amol.com.authmatrixbackend.security.RevocationChannel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+
+// Hibernate second-level cache: JCache regions backed by Caffeine, created here so size and TTL come from
+// application properties. Only UserEntity is cached; the query cache stays off because any write to
+// tbl_users would invalidate every cached result.
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final List<String> REGIONS = List.of(UserEntity.CACHE_REGION, UserEntity.NATURAL_ID_CACHE_REGION);
+
+    // Each application context gets its own manager, so test and benchmark contexts in one JVM do not share regions
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${auth.entity-cache.ttl:PT5M}") Duration ttl,
+                                              @Value("${auth.entity-cache.max-size:10000}") long maxSize) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("authmatrix-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            // Hibernate stores immutable cache entries; copying them on every read and write buys nothing
+            configuration.setStoreByValue(false);
+            configuration.setNativeStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // A region missing from the manager is a mapping mistake, not something to paper over with defaults
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // cache_gets_total{cache, result=hit|miss}, evictions and size per region, plus the cumulative hit ratio
+    @Bean
+    public SmartInitializingSingleton secondLevelCacheMetrics(CacheManager hibernateCacheManager, MeterRegistry meterRegistry) {
+        return () -> {
+            for (String region : REGIONS) {
+                @SuppressWarnings("unchecked")
+                Cache<Object, Object> cache = hibernateCacheManager.getCache(region).unwrap(Cache.class);
+                CaffeineCacheMetrics.monitor(meterRegistry, cache, region);
+                Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                        .tag("cache", region)
+                        .register(meterRegistry);
+            }
+        };
+    }
+
+    // Cached users are node-local. Password resets reach other nodes as USER revocations, so drop the cached
+    // rows there as well; otherwise the old hash would keep working for login until the entry expires.
+    @Bean
+    public SmartInitializingSingleton secondLevelCacheEviction(RevocationChannel revocationChannel,
+                                                               EntityManagerFactory entityManagerFactory) {
+        return () -> revocationChannel.subscribe(event -> {
+            if (event.type() == RevocationChannel.Type.USER) {
+                org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+                cache.evictEntityData(UserEntity.class);
+                cache.evictNaturalIdData(UserEntity.class);
+            }
+        });
+    }
+}
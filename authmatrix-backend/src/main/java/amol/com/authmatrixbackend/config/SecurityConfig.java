@@ -1,20 +1,30 @@
 package amol.com.authmatrixbackend.config;
 
 import amol.com.authmatrixbackend.filter.JwtRequestFilter;
-import amol.com.authmatrixbackend.service.AppUserDetailsService;
+import amol.com.authmatrixbackend.filter.ConcurrencyLimitFilter;
+import amol.com.authmatrixbackend.filter.PrincipalRateLimitFilter;
+import amol.com.authmatrixbackend.filter.RateLimitFilter;
+import amol.com.authmatrixbackend.security.BoundedPasswordEncoder;
+import amol.com.authmatrixbackend.security.PasswordEncoders;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.Filter;
 import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.ProviderManager;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -28,8 +38,13 @@ import org.springframework.web.filter.CorsFilter;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
-    private final AppUserDetailsService appUserDetailsService;
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     private final JwtRequestFilter jwtRequestFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final PrincipalRateLimitFilter principalRateLimitFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+    private final PublicRoutes publicRoutes;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
 
     @Bean
@@ -40,30 +55,86 @@ public class SecurityConfig {
                 // Allow CORS preflight requests for all endpoints
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
-                // Public endpoints
-                .requestMatchers(
-                    "/", "/index.html", "/favicon.ico", "/favicon.png",
-                    "/assets/**", "/manifest.json", "/logo192.png", "/logo512.png",
-                    "/**/*.js", "/**/*.css", "/**/*.png", "/**/*.svg",
-                    "/**/*.woff2", "/**/*.ttf",
-                    "/register", "/login", "/verify-otp", "/is-authenticated",
-                    "/send-reset-otp", "/reset-password", "/logout", "/debug-auth"
-                ).permitAll()
+                // Public endpoints and static files (see PublicRoutes)
+                .requestMatchers(publicRoutes::isPublic).permitAll()
 
                 // All other requests require authentication
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .logout(AbstractHttpConfigurer::disable)
+            // Rate limiting runs first so throttled requests never reach token verification
+            .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(concurrencyLimitFilter, UsernamePasswordAuthenticationFilter.class)
             .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class)
+            // The signed-in OTP endpoints are limited per user, which is only known once the token is verified
+            .addFilterAfter(principalRateLimitFilter, JwtRequestFilter.class)
             .exceptionHandling(ex -> ex.authenticationEntryPoint(customAuthenticationEntryPoint));
 
         return http.build();
     }
 
+    // Fingerprinted assets bypass the security chain entirely: no security context, no header writers, no filters.
+    // The HTML shell (client routes, /index.html) stays in the chain under permitAll() so it keeps X-Frame-Options,
+    // X-Content-Type-Options and HSTS
+    @Bean
+    public WebSecurityCustomizer staticResourcesIgnored() {
+        return web -> web.ignoring().requestMatchers(HttpMethod.GET, "/assets/**");
+    }
+
+    // These filters are beans only so the security chain can use them; without this Boot would also register each
+    // one as a servlet filter that runs (and is consulted) on every request, static files included
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration() {
+        return disabledRegistration(rateLimitFilter);
+    }
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public FilterRegistrationBean<PrincipalRateLimitFilter> principalRateLimitFilterRegistration() {
+        return disabledRegistration(principalRateLimitFilter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration() {
+        return disabledRegistration(concurrencyLimitFilter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<JwtRequestFilter> jwtRequestFilterRegistration() {
+        return disabledRegistration(jwtRequestFilter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<CorsFilter> corsFilterRegistration(CorsFilter corsFilter) {
+        return disabledRegistration(corsFilter);
+    }
+
+    private static <T extends Filter> FilterRegistrationBean<T> disabledRegistration(T filter) {
+        FilterRegistrationBean<T> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${auth.password.algorithm:bcrypt}") String algorithm,
+            @Value("${auth.password.cost:0}") int cost,
+            @Value("${auth.password.calibrate:false}") boolean calibrate,
+            @Value("${auth.password.target-latency:PT0.25S}") Duration targetLatency,
+            @Value("${auth.password.hashing.threads:0}") int threads,
+            @Value("${auth.password.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.password.hashing.retry-after:PT1S}") Duration retryAfter,
+            @Value("${auth.password.hashing.timeout:PT5S}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        int effectiveCost = calibrate
+                ? PasswordEncoders.calibrate(algorithm, targetLatency)
+                : cost > 0 ? cost : PasswordEncoders.defaultCost(algorithm);
+        log.info("Password hashing: {} with cost {}{}", algorithm, effectiveCost, calibrate ? " (calibrated)" : "");
+
+        // Default to one hashing thread per CPU
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(PasswordEncoders.delegating(algorithm, effectiveCost),
+                poolSize, queueCapacity, retryAfter, timeout, meterRegistry);
     }
 
     @Bean
@@ -90,12 +161,4 @@ public class SecurityConfig {
         source.registerCorsConfiguration("/**", config);
         return source;
     }
-
-    @Bean
-    public AuthenticationManager authenticationManager() {
-        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
-        authenticationProvider.setUserDetailsService(appUserDetailsService);
-        authenticationProvider.setPasswordEncoder(passwordEncoder());
-        return new ProviderManager(authenticationProvider);
-    }
 }
@@ -0,0 +1,96 @@
+package amol.com.authmatrixbackend.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+import amol.com.authmatrixbackend.util.ContentEtags;
+
+// Serves the bundled SPA (spring.web.resources.add-mappings is off, so these are the only static mappings).
+// Vite fingerprints everything under /assets/, so those files are immutable for a year; the rest (index.html,
+// favicon) must be revalidated. The .br/.gz variants written by the frontend build are picked by Accept-Encoding.
+// Strong ETags are content hashes computed once, so a revalidation costs a map lookup and a 304.
+@Configuration
+public class StaticResourceConfig implements WebMvcConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(StaticResourceConfig.class);
+
+    private final String location;
+    private final Duration assetMaxAge;
+    // Resource URL -> quoted strong ETag; each encoded variant is a separate representation with its own tag
+    private final Map<String, String> etags = new ConcurrentHashMap<>();
+
+    public StaticResourceConfig(@Value("${spring.web.resources.static-locations:classpath:/static/}") String location,
+                                @Value("${auth.static.asset-max-age:P365D}") Duration assetMaxAge) {
+        this.location = location.endsWith("/") ? location : location + "/";
+        this.assetMaxAge = assetMaxAge;
+        precomputeEtags();
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/assets/**")
+                .addResourceLocations(location + "assets/")
+                .setCacheControl(CacheControl.maxAge(assetMaxAge).cachePublic().immutable())
+                .setEtagGenerator(this::etag)
+                .setUseLastModified(false)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new PathResourceResolver());
+
+        registry.addResourceHandler("/**")
+                .addResourceLocations(location)
+                .setCacheControl(CacheControl.noCache().cachePublic())
+                .setEtagGenerator(this::etag)
+                .setUseLastModified(false)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new PathResourceResolver());
+    }
+
+    private void precomputeEtags() {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(location + "**");
+            for (Resource resource : resources) {
+                if (resource.isReadable()) {
+                    etag(resource);
+                }
+            }
+            log.info("Precomputed ETags for {} static resources", etags.size());
+        } catch (IOException e) {
+            log.warn("Could not scan {} for static resources: {}", location, e.getMessage());
+        }
+    }
+
+    // Resources missed by the startup scan (e.g. added to an exploded directory later) are hashed on first request
+    private String etag(Resource resource) {
+        try {
+            return etags.computeIfAbsent(resource.getURL().toString(), url -> hash(resource));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String hash(Resource resource) {
+        try (InputStream in = resource.getInputStream()) {
+            return ContentEtags.strong(in);
+        } catch (IOException e) {
+            // No ETag rather than a failed request; nothing is cached, so the next request tries again
+            return null;
+        }
+    }
+}
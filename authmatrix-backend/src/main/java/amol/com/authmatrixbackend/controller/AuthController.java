@@ -2,26 +2,38 @@ package amol.com.authmatrixbackend.controller;
 
 import amol.com.authmatrixbackend.io.AuthRequest;
 import amol.com.authmatrixbackend.io.ResetPasswordRequest;
+import amol.com.authmatrixbackend.security.AuditLog;
+import amol.com.authmatrixbackend.security.AuthEvent;
+import amol.com.authmatrixbackend.security.AuthMetrics;
+import amol.com.authmatrixbackend.security.LoginLockout;
+import amol.com.authmatrixbackend.security.PasswordUpgradeService;
+import amol.com.authmatrixbackend.security.TokenRevocationService;
+import amol.com.authmatrixbackend.security.VerifiedTokenCache;
 import amol.com.authmatrixbackend.service.AppUserDetailsService;
 import amol.com.authmatrixbackend.service.ProfileService;
+import amol.com.authmatrixbackend.service.RefreshTokenService;
 import amol.com.authmatrixbackend.util.JwtUtil;
-import amol.com.authmatrixbackend.entity.UserEntity;
+import amol.com.authmatrixbackend.util.VerifiedToken;
+import amol.com.authmatrixbackend.repository.UserLogin;
 import amol.com.authmatrixbackend.repository.UserRepository;
+import amol.com.authmatrixbackend.repository.UserSummary;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.DisabledException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.annotation.CurrentSecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
@@ -33,58 +45,85 @@ import jakarta.servlet.http.Cookie;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
 public class AuthController {
 
-    private final AuthenticationManager authenticationManager;
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
+    private final PasswordEncoder passwordEncoder;
     private final AppUserDetailsService appUserDetailsService;
     private final JwtUtil jwtUtil;
     private final ProfileService profileService;
     private final UserRepository userRepository; // Injected UserRepository
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final PasswordUpgradeService passwordUpgradeService;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final AuthMetrics authMetrics;
+    private final AuditLog auditLog;
+    private final LoginLockout loginLockout;
+
+    private static final String REFRESH_COOKIE = "refresh_token";
+
+    private volatile String userNotFoundEncodedPassword;
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody AuthRequest request) {
+    public ResponseEntity<?> login(@RequestBody AuthRequest request, HttpServletRequest httpRequest) {
+        long start = System.nanoTime();
+        // The client IP as resolved by server.forward-headers-strategy, the same key RateLimitFilter uses
+        String ip = httpRequest.getRemoteAddr();
+        // Checked before the user lookup and the password hash, so a locked account costs no DB or CPU time
+        Duration lockedFor = loginLockout.retryAfter(request.getEmail(), ip);
+        if (!lockedFor.isZero()) {
+            authMetrics.login(AuthMetrics.LoginOutcome.LOCKED, System.nanoTime() - start);
+            auditLog.record(AuthEvent.Type.LOGIN_FAILED, request.getEmail(), null, "locked");
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", true);
+            error.put("message", "Too many failed login attempts, please try again later");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, (lockedFor.toMillis() + 999) / 1000)))
+                    .body(error);
+        }
         try {
-            authenticate(request.getEmail(), request.getPassword());
-
-            final UserDetails userDetails = appUserDetailsService.loadUserByUsername(request.getEmail());
-            final String jwtToken = jwtUtil.generateToken(userDetails);
-            UserEntity user = userRepository.findByEmail(request.getEmail()).get();
-
-            Map<String, Object> userData = new HashMap<>();
-            userData.put("email", user.getEmail());
-            userData.put("name", user.getName());
-            userData.put("isAccountVerified", user.getIsAccountVerified());
-            userData.put("jwt", jwtToken);
-
-            ResponseCookie cookie = ResponseCookie.from("jwt", jwtToken)
-                    .httpOnly(true)
-                    .secure(true)
-                    .sameSite("Lax") 
-                    .path("/")
-                    .maxAge(Duration.ofDays(1))
-                    .build();
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.SET_COOKIE, cookie.toString())
-                    .body(userData);
+            // One lookup feeds the password check, the token claims and the response body
+            UserSummary user = authenticate(request.getEmail(), request.getPassword());
+
+            long phaseStart = System.nanoTime();
+            RefreshTokenService.IssuedRefreshToken refreshToken = refreshTokenService.issue(user.email());
+            authMetrics.loginPhase(AuthMetrics.LoginPhase.SESSION, System.nanoTime() - phaseStart);
+
+            phaseStart = System.nanoTime();
+            String jwtToken = accessToken(user, refreshToken);
+            authMetrics.loginPhase(AuthMetrics.LoginPhase.SIGN, System.nanoTime() - phaseStart);
+
+            ResponseEntity<?> response = sessionResponse(user, jwtToken, refreshToken);
+            loginLockout.succeeded(request.getEmail());
+            authMetrics.login(AuthMetrics.LoginOutcome.SUCCESS, System.nanoTime() - start);
+            auditLog.record(AuthEvent.Type.LOGIN_SUCCEEDED, user.email(), refreshToken.familyId(), null);
+            return response;
 
+        } catch (ResponseStatusException ex) {
+            authMetrics.login(AuthMetrics.LoginOutcome.ERROR, System.nanoTime() - start);
+            throw ex;
         } catch (BadCredentialsException ex) {
+            authMetrics.login(AuthMetrics.LoginOutcome.BAD_CREDENTIALS, System.nanoTime() - start);
+            auditLog.record(AuthEvent.Type.LOGIN_FAILED, request.getEmail(), null, "bad_credentials");
+            LoginLockout.Scope locked = loginLockout.failed(request.getEmail(), ip);
+            if (locked != null) {
+                auditLog.record(AuthEvent.Type.LOGIN_LOCKED, request.getEmail(), null, locked.name().toLowerCase(Locale.ROOT));
+            }
             Map<String, Object> error = new HashMap<>();
             error.put("error", true);
             error.put("message", "Email or Password is incorrect");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        } catch (DisabledException ex) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("error", true);
-            error.put("message", "User account is disabled");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
         } catch (Exception ex) {
-            System.err.println("Unexpected login error: " + ex.getMessage());
-            ex.printStackTrace();
+            authMetrics.login(AuthMetrics.LoginOutcome.ERROR, System.nanoTime() - start);
+            auditLog.record(AuthEvent.Type.LOGIN_FAILED, request.getEmail(), null, "error");
+            log.error("Unexpected login error", ex);
             Map<String, Object> error = new HashMap<>();
             error.put("error", true);
             error.put("message", "Authentication failed: " + ex.getMessage());
@@ -92,8 +131,92 @@ public class AuthController {
         }
     }
 
-    private void authenticate(String email, String password) {
-        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(email, password));
+    // Rotates the refresh token and mints a new short-lived access token for the same session
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@CookieValue(name = REFRESH_COOKIE, required = false) String refreshToken) {
+        try {
+            RefreshTokenService.IssuedRefreshToken rotated = refreshTokenService.rotate(refreshToken);
+            UserSummary user = userRepository.findSummaryByEmail(rotated.email())
+                    .orElseThrow(() -> new BadCredentialsException("User no longer exists"));
+            return sessionResponse(user, accessToken(user, rotated), rotated);
+        } catch (BadCredentialsException ex) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", true);
+            error.put("message", "Session expired - please log in again");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .header(HttpHeaders.SET_COOKIE, refreshCookie("", Duration.ZERO).toString())
+                    .body(error);
+        }
+    }
+
+    private String accessToken(UserSummary user, RefreshTokenService.IssuedRefreshToken refreshToken) {
+        return jwtUtil.generateToken(user, appUserDetailsService.getAuthorities(user.email()), refreshToken.familyId());
+    }
+
+    private ResponseEntity<Map<String, Object>> sessionResponse(UserSummary user, String jwtToken,
+                                                                RefreshTokenService.IssuedRefreshToken refreshToken) {
+        Map<String, Object> userData = new HashMap<>();
+        userData.put("email", user.email());
+        userData.put("name", user.name());
+        userData.put("isAccountVerified", user.isAccountVerified());
+        userData.put("jwt", jwtToken);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, accessCookie(jwtToken).toString())
+                .header(HttpHeaders.SET_COOKIE, refreshCookie(refreshToken.token(), refreshToken.maxAge()).toString())
+                .body(userData);
+    }
+
+    private ResponseCookie accessCookie(String jwtToken) {
+        return ResponseCookie.from("jwt", jwtToken)
+                .httpOnly(true)
+                .secure(true)
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(jwtUtil.getAccessTokenTtl())
+                .build();
+    }
+
+    // Only sent to /refresh, so the long-lived credential never travels with ordinary requests
+    private static ResponseCookie refreshCookie(String value, Duration maxAge) {
+        return ResponseCookie.from(REFRESH_COOKIE, value)
+                .httpOnly(true)
+                .secure(true)
+                .sameSite("Strict")
+                .path("/refresh")
+                .maxAge(maxAge)
+                .build();
+    }
+
+    private UserSummary authenticate(String email, String password) {
+        long phaseStart = System.nanoTime();
+        UserLogin user = email == null ? null : userRepository.findLoginByEmail(email).orElse(null);
+        authMetrics.loginPhase(AuthMetrics.LoginPhase.DB, System.nanoTime() - phaseStart);
+
+        phaseStart = System.nanoTime();
+        boolean matches;
+        if (user == null) {
+            // Spend the same hashing time as a real check so unknown emails cannot be told apart by latency
+            passwordEncoder.matches(password == null ? "" : password, getUserNotFoundPassword());
+            matches = false;
+        } else {
+            matches = password != null && passwordEncoder.matches(password, user.password());
+        }
+        authMetrics.loginPhase(AuthMetrics.LoginPhase.HASH, System.nanoTime() - phaseStart);
+        if (!matches) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        passwordUpgradeService.upgradeIfNeeded(email, password, user.password());
+        return user.summary();
+    }
+
+    private String getUserNotFoundPassword() {
+        String encoded = userNotFoundEncodedPassword;
+        if (encoded == null) {
+            encoded = passwordEncoder.encode("userNotFoundPassword");
+            userNotFoundEncodedPassword = encoded;
+        }
+        return encoded;
     }
 
     @GetMapping("/is-authenticated") 
@@ -105,6 +228,7 @@ public class AuthController {
     public void sendResetOtp(@RequestParam String email) {
         try {
             profileService.sendResetOtp(email);
+            auditLog.record(AuthEvent.Type.PASSWORD_RESET_REQUESTED, email, null, null);
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
         }
@@ -114,7 +238,12 @@ public class AuthController {
     public void resetPassword(@Valid @RequestBody ResetPasswordRequest request) {
         try {
             profileService.resetPassword(request.getEmail(), request.getOtp(), request.getNewPassword());
+            auditLog.record(AuthEvent.Type.PASSWORD_RESET, request.getEmail(), null, null);
+        } catch (ResponseStatusException e) {
+            auditLog.record(AuthEvent.Type.PASSWORD_RESET_REJECTED, request.getEmail(), null, e.getReason());
+            throw e;
         } catch (Exception e) {
+            auditLog.record(AuthEvent.Type.PASSWORD_RESET_REJECTED, request.getEmail(), null, e.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
         }
     }
@@ -122,32 +251,12 @@ public class AuthController {
 
 @PostMapping("/send-otp")
 public ResponseEntity<?> sendVerifyOtp(HttpServletRequest request) {
-    // Debug logging
-    System.out.println("/send-otp endpoint called");
-    
-    // Check cookies
-    Cookie[] cookies = request.getCookies();
-    if (cookies != null) {
-        for (Cookie cookie : cookies) {
-            if ("jwt".equals(cookie.getName())) {
-                System.out.println("JWT Cookie found: " + cookie.getValue().substring(0, Math.min(50, cookie.getValue().length())) + "...");
-            }
-        }
-    } else {
-        System.out.println("No cookies found in request");
-    }
-    
     // Check authentication
     Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-    System.out.println("Authentication object: " + auth);
-    System.out.println("Is authenticated: " + (auth != null && auth.isAuthenticated()));
-    System.out.println("Principal: " + (auth != null ? auth.getPrincipal() : "null"));
-    
     String email = auth != null ? auth.getName() : null;
-    System.out.println("📧 Extracted email: " + email);
 
     if (email == null || auth == null || !auth.isAuthenticated()) {
-        System.out.println("Authentication failed - returning 401");
+        log.debug("/send-otp called without an authenticated user");
         Map<String, Object> error = new HashMap<>();
         error.put("error", true);
         error.put("message", "User not authenticated - please log in again");
@@ -155,9 +264,8 @@ public ResponseEntity<?> sendVerifyOtp(HttpServletRequest request) {
     }
 
     try {
-        System.out.println("Calling profileService.sendOtp for: " + email);
         profileService.sendOtp(email);
-        System.out.println("OTP sent successfully for: " + email);
+        auditLog.record(AuthEvent.Type.OTP_SENT, email, null, null);
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -165,8 +273,7 @@ public ResponseEntity<?> sendVerifyOtp(HttpServletRequest request) {
         return ResponseEntity.ok(response);
         
     } catch (Exception e) {
-        System.err.println("Error in sendOtp: " + e.getMessage());
-        e.printStackTrace();
+        log.error("Failed to send verification OTP", e);
         Map<String, Object> error = new HashMap<>();
         error.put("error", true);
         error.put("message", "Failed to send OTP: " + e.getMessage());
@@ -177,8 +284,6 @@ public ResponseEntity<?> sendVerifyOtp(HttpServletRequest request) {
 // Add this new debug method to your AuthController:
 @GetMapping("/debug-auth")
 public ResponseEntity<?> debugAuth(HttpServletRequest request) {
-    System.out.println("/debug-auth endpoint called");
-    
     Map<String, Object> debugInfo = new HashMap<>();
     
     // Check cookies
@@ -191,11 +296,12 @@ public ResponseEntity<?> debugAuth(HttpServletRequest request) {
                 
                 // Try to validate the JWT
                 try {
-                    String email = jwtUtil.extractEmail(cookie.getValue());
+                    VerifiedToken token = jwtUtil.verify(cookie.getValue());
+                    String email = token.subject();
                     debugInfo.put("emailFromJWT", email);
                     
                     UserDetails userDetails = appUserDetailsService.loadUserByUsername(email);
-                    boolean isValid = jwtUtil.validateToken(cookie.getValue(), userDetails);
+                    boolean isValid = jwtUtil.validateToken(token, userDetails);
                     debugInfo.put("jwtValid", isValid);
                 } catch (Exception e) {
                     debugInfo.put("jwtError", e.getMessage());
@@ -218,19 +324,56 @@ public ResponseEntity<?> debugAuth(HttpServletRequest request) {
 
 
     @PostMapping("/verify-otp")
-    public void verifyEmail(@RequestBody Map<String, Object> request, @CurrentSecurityContext(expression = "authentication?.name") String email) {
+    public ResponseEntity<Map<String, Object>> verifyEmail(@RequestBody Map<String, Object> request,
+                                                           @CurrentSecurityContext(expression = "authentication?.name") String email,
+                                                           HttpServletRequest httpRequest) {
         if (request.get("otp") == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "OTP is required");
         }
         try {
             profileService.verifyOtp(email, request.get("otp").toString());
+            auditLog.record(AuthEvent.Type.OTP_VERIFIED, email, null, null);
         } catch (Exception e) {
+            auditLog.record(AuthEvent.Type.OTP_REJECTED, email, null, e.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
         }
+
+        // With jwt.principal-source=token the verified flag comes from the access token, so the presented one is
+        // stale now; hand out a replacement for the same session
+        UserSummary user = userRepository.findSummaryByEmail(email)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User no longer exists"));
+        String sessionId = verifiedTokenCache.get(extractJwt(httpRequest), jwtUtil::verify).sessionId();
+        String jwtToken = jwtUtil.generateToken(user, appUserDetailsService.getAuthorities(email), sessionId);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("isAccountVerified", true);
+        body.put("jwt", jwtToken);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, accessCookie(jwtToken).toString())
+                .body(body);
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(HttpServletResponse response) {
+    public ResponseEntity<?> logout(HttpServletRequest request, HttpServletResponse response) {
+        // Revoke the presented token everywhere, end its refresh-token session and drop it from the cache
+        String jwt = extractJwt(request);
+        if (jwt != null) {
+            try {
+                VerifiedToken token = verifiedTokenCache.get(jwt, jwtUtil::verify);
+                tokenRevocationService.revoke(token);
+                refreshTokenService.revokeFamily(token.sessionId());
+                auditLog.record(AuthEvent.Type.LOGOUT, token.subject(), token.sessionId(), null);
+            } catch (ExpiredJwtException ex) {
+                // The signature was checked before expiry, so the session id is still trustworthy
+                String sessionId = ex.getClaims().get(JwtUtil.CLAIM_SESSION_ID, String.class);
+                refreshTokenService.revokeFamily(sessionId);
+                auditLog.record(AuthEvent.Type.LOGOUT, ex.getClaims().getSubject(), sessionId, "expired_token");
+            } catch (JwtException | IllegalArgumentException ex) {
+                // Invalid tokens are already unusable
+            }
+            verifiedTokenCache.invalidate(jwt);
+        }
+
         ResponseCookie cookie = ResponseCookie.from("jwt", "")
                 .httpOnly(true)
                 .secure(true)
@@ -241,6 +384,23 @@ public ResponseEntity<?> debugAuth(HttpServletRequest request) {
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                .header(HttpHeaders.SET_COOKIE, refreshCookie("", Duration.ZERO).toString())
                 .body("Logged out successfully");
     }
+
+    private String extractJwt(HttpServletRequest request) {
+        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            return authorizationHeader.substring(7);
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if ("jwt".equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
 }
@@ -1,17 +1,103 @@
 package amol.com.authmatrixbackend.controller;
 
-import org.springframework.stereotype.Controller;
-import org.springframework.web.bind.annotation.RequestMapping;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
 
-@Controller
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.condition.RequestCondition;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import amol.com.authmatrixbackend.config.PublicRoutes;
+import amol.com.authmatrixbackend.util.ContentEtags;
+import jakarta.servlet.http.HttpServletRequest;
+
+// SPA fallback: serves index.html for any browser navigation to a client-side route, i.e. a GET that accepts
+// text/html, has no file extension and is not an API or actuator path (PublicRoutes.isClientRoute, which also makes
+// those requests public). The mapping is a catch-all registered at startup with that rule as a custom condition;
+// API handlers win on their own paths because their patterns are more specific. index.html is read once and
+// written from memory with a strong ETag, so there is no forward and no second pass through the filter chain;
+// Spring answers a matching If-None-Match with 304.
+@Component
 public class FrontendController {
 
-    @RequestMapping(value = {
-        "/",                     // root
-        "/{x:[\\w\\-]+}",        // /about, /dashboard
-        "/{x:^(?!api$).*$}/**/{y:[\\w\\-]+}" // nested routes, avoid /api/*
-    })
-    public String forward() {
-        return "forward:/index.html";
+    private static final Logger log = LoggerFactory.getLogger(FrontendController.class);
+
+    private final byte[] index;
+    private final String etag;
+
+    public FrontendController(ResourceLoader resourceLoader,
+                              PublicRoutes publicRoutes,
+                              @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                              @Value("${spring.web.resources.static-locations:classpath:/static/}") String location)
+            throws NoSuchMethodException {
+        Resource resource = resourceLoader.getResource((location.endsWith("/") ? location : location + "/") + "index.html");
+        byte[] content = null;
+        try (InputStream in = resource.getInputStream()) {
+            content = in.readAllBytes();
+        } catch (IOException e) {
+            log.warn("No index.html under {}; client-side routes will return 404", location);
+        }
+        this.index = content;
+        this.etag = content != null ? ContentEtags.strong(content) : null;
+
+        // The controllers are already mapped; their GET paths are never client routes
+        Set<String> apiReadPaths = new HashSet<>();
+        handlerMapping.getHandlerMethods().keySet().forEach(info -> {
+            Set<RequestMethod> methods = info.getMethodsCondition().getMethods();
+            if (methods.isEmpty() || methods.contains(RequestMethod.GET)) {
+                apiReadPaths.addAll(info.getPatternValues());
+            }
+        });
+        publicRoutes.registerApiReadPaths(apiReadPaths);
+
+        handlerMapping.registerMapping(
+                RequestMappingInfo.paths("/**")
+                        .methods(RequestMethod.GET)
+                        .customCondition(new ClientRouteCondition(publicRoutes))
+                        .options(handlerMapping.getBuilderConfiguration())
+                        .build(),
+                this, FrontendController.class.getMethod("index"));
+    }
+
+    public ResponseEntity<byte[]> index() {
+        if (index == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_HTML)
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .eTag(etag)
+                .body(index);
+    }
+
+    private record ClientRouteCondition(PublicRoutes publicRoutes) implements RequestCondition<ClientRouteCondition> {
+
+        @Override
+        public ClientRouteCondition combine(ClientRouteCondition other) {
+            return other;
+        }
+
+        @Override
+        public ClientRouteCondition getMatchingCondition(HttpServletRequest request) {
+            return publicRoutes.isClientRoute(request) ? this : null;
+        }
+
+        @Override
+        public int compareTo(ClientRouteCondition other, HttpServletRequest request) {
+            return 0;
+        }
     }
 }
@@ -0,0 +1,33 @@
+package amol.com.authmatrixbackend.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import amol.com.authmatrixbackend.io.IntrospectionRequest;
+import amol.com.authmatrixbackend.io.IntrospectionResponse;
+import amol.com.authmatrixbackend.service.TokenIntrospectionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+public class IntrospectionController {
+
+    public static final String CLIENT_KEY_HEADER = "X-Introspection-Key";
+
+    private final TokenIntrospectionService tokenIntrospectionService;
+
+    // Authenticated by a gateway client key rather than a user token
+    @PostMapping("/introspect")
+    public IntrospectionResponse introspect(@RequestHeader(value = CLIENT_KEY_HEADER, required = false) String clientKey,
+                                            @Valid @RequestBody IntrospectionRequest request) {
+        if (!tokenIntrospectionService.isAuthorizedClient(clientKey)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid introspection client key");
+        }
+        return new IntrospectionResponse(tokenIntrospectionService.introspect(request.getTokens()));
+    }
+}
@@ -0,0 +1,43 @@
+package amol.com.authmatrixbackend.controller;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import amol.com.authmatrixbackend.security.SigningKeyRing;
+import amol.com.authmatrixbackend.util.JwtUtil;
+
+// Public keys for offline token verification by downstream services.
+// The body is pre-rendered per keyring snapshot; a matching If-None-Match gets a 304 without a body.
+@RestController
+public class JwksController {
+
+    private final SigningKeyRing keyRing;
+    private final JwtUtil jwtUtil;
+    private final CacheControl cacheControl;
+
+    public JwksController(SigningKeyRing keyRing, JwtUtil jwtUtil,
+                          @Value("${jwt.jwks.max-age:PT15M}") Duration maxAge) {
+        this.keyRing = keyRing;
+        this.jwtUtil = jwtUtil;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> jwks() {
+        if (!jwtUtil.usesKeyRing()) {
+            // HS256 tokens cannot be verified with a public key
+            return ResponseEntity.notFound().build();
+        }
+        SigningKeyRing.Jwks jwks = keyRing.jwks();
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(jwks.etag())
+                .body(jwks.json());
+    }
+}
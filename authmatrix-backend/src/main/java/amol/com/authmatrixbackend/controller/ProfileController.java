@@ -2,7 +2,6 @@ package amol.com.authmatrixbackend.controller;
 
 import amol.com.authmatrixbackend.io.ProfileRequest;
 import amol.com.authmatrixbackend.io.ProfileResponse;
-import amol.com.authmatrixbackend.service.EmailService;
 import amol.com.authmatrixbackend.service.ProfileService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -24,15 +23,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class ProfileController {
 
     private final ProfileService profileService;
-    private final EmailService emailService;
     
     @PostMapping("/register")
     @ResponseStatus(HttpStatus.CREATED)
     public ProfileResponse register(@Valid @RequestBody ProfileRequest request) {
-        ProfileResponse response = profileService.createProfile(request);
-        emailService.sendWelcomeEmail(response.getEmail(), response.getName());
-
-        return response;
+        return profileService.createProfile(request);
     }
     
     @GetMapping("/profile")
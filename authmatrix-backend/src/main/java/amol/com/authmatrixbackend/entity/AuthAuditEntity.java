@@ -0,0 +1,36 @@
+package amol.com.authmatrixbackend.entity;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Append-only audit table written in JDBC batches by AuditLog; mapped here so the schema is managed with the rest
+@Entity
+@Immutable
+@Table(name = "tbl_auth_audit", indexes = {
+    @Index(name = "idx_auth_audit_email", columnList = "email, occurredAt"),
+    @Index(name = "idx_auth_audit_occurred_at", columnList = "occurredAt")
+})
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AuthAuditEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long occurredAt;
+    @Column(length = 32)
+    private String type;
+    private String email;
+    @Column(length = 64)
+    private String ip;
+    @Column(length = 64)
+    private String sessionId;
+    private String detail;
+}
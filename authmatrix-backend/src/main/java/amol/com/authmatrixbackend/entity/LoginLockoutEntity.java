@@ -0,0 +1,25 @@
+package amol.com.authmatrixbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Active login lockouts written by LoginLockout when a lock engages or clears, and reloaded at startup;
+// mapped here so the schema is managed with the rest
+@Entity
+@Table(name = "tbl_login_lockout")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoginLockoutEntity {
+
+    // "email:<address>" or "ip:<address>"
+    @Id
+    @Column(length = 320)
+    private String lockKey;
+    private Long lockedUntil;
+    private Integer lockouts;
+}
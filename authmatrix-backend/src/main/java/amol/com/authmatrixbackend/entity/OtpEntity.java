@@ -0,0 +1,39 @@
+package amol.com.authmatrixbackend.entity;
+
+import java.io.Serializable;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Narrow OTP table used by JdbcOtpStore; mapped here so the schema is managed with the rest
+@Entity
+@Table(name = "tbl_otp", indexes = {
+    @Index(name = "idx_otp_expire_at", columnList = "expireAt")
+})
+@IdClass(OtpEntity.Key.class)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OtpEntity {
+
+    @Id
+    private String email;
+    @Id
+    @Column(length = 16)
+    private String purpose;
+    @Column(length = 16)
+    private String code;
+    private Long expireAt;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private String email;
+        private String purpose;
+    }
+}
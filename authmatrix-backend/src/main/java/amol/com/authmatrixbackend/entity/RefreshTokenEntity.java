@@ -0,0 +1,47 @@
+package amol.com.authmatrixbackend.entity;
+
+import java.sql.Timestamp;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One row per issued refresh token; only the SHA-256 of the opaque token is stored
+@Entity
+@Table(name = "tbl_refresh_tokens", indexes = {
+    @Index(name = "idx_refresh_token_family", columnList = "familyId"),
+    @Index(name = "idx_refresh_token_email", columnList = "email"),
+    @Index(name = "idx_refresh_token_expires", columnList = "expiresAt")
+})
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefreshTokenEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(unique = true, length = 64)
+    private String tokenHash;
+    // All tokens of one login session share a family; it is also the access token's sid claim
+    @Column(length = 36)
+    private String familyId;
+    private String email;
+    private Long expiresAt;
+    private Long familyExpiresAt;
+    private Long usedAt;
+    // Set on rotation: the successor token is derived from this token and the salt, so a refresh that lost the
+    // race with a concurrent one can be handed the same successor (see RefreshTokenService.rotate)
+    @Column(length = 43)
+    private String successorSalt;
+    private boolean revoked;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Timestamp createdAt;
+}
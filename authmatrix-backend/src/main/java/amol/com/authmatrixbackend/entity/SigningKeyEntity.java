@@ -0,0 +1,32 @@
+package amol.com.authmatrixbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Shared ES256 keyring used by JdbcSigningKeyStore; mapped here so the schema is managed with the rest.
+// Holds private keys, encrypted when jwt.signing.encryption-key is set. The unique activation time lets exactly one
+// node schedule each rotation.
+@Entity
+@Table(name = "tbl_signing_key", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_signing_key_activates_at", columnNames = "activatesAt")
+})
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SigningKeyEntity {
+
+    @Id
+    @Column(length = 32)
+    private String kid;
+    // PKCS#8 (possibly AES-GCM encrypted, see JdbcSigningKeyStore) and X.509 encodings of a P-256 key pair
+    @Column(length = 512, nullable = false)
+    private byte[] privateKey;
+    @Column(length = 512, nullable = false)
+    private byte[] publicKey;
+    @Column(nullable = false)
+    private Long activatesAt;
+}
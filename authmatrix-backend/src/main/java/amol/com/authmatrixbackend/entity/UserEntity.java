@@ -4,7 +4,11 @@ package amol.com.authmatrixbackend.entity;
 
 import java.sql.Timestamp;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import jakarta.persistence.*;
@@ -15,11 +19,18 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "tbl_users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = UserEntity.CACHE_REGION)
+@NaturalIdCache(region = UserEntity.NATURAL_ID_CACHE_REGION)
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class UserEntity {
+
+    // Second-level cache regions, sized in SecondLevelCacheConfig
+    public static final String CACHE_REGION = "users";
+    public static final String NATURAL_ID_CACHE_REGION = "users-by-email";
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,14 +38,11 @@ public class UserEntity {
     @Column(unique = true)
     private String userId;
     private String name;
+    @NaturalId
     @Column(unique = true)
     private String email;
     private String password;
-    private String verifyOtp;
     private Boolean isAccountVerified;
-    private Long verifyOtpExpireAt;
-    private String resetOtp;
-    private Long resetOtpExpireAt;
 
     @CreationTimestamp
     @Column(updatable = false)
@@ -0,0 +1,82 @@
+package amol.com.authmatrixbackend.filter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import amol.com.authmatrixbackend.config.PublicRoutes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// On virtual threads the Tomcat pool no longer caps how many requests run at once, so this semaphore does:
+// it keeps a burst from queueing thousands of requests on the Hikari pool. Static files are not counted.
+// Password hashing has its own bound in BoundedPasswordEncoder.
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final PublicRoutes publicRoutes;
+    private final boolean enabled;
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final Counter rejectedCounter;
+
+    public ConcurrencyLimitFilter(PublicRoutes publicRoutes,
+                                  @Value("${auth.concurrency.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+                                  @Value("${auth.concurrency.max-requests:200}") int maxRequests,
+                                  @Value("${auth.concurrency.acquire-timeout:PT0.5S}") Duration acquireTimeout,
+                                  MeterRegistry meterRegistry) {
+        this.publicRoutes = publicRoutes;
+        this.enabled = enabled;
+        this.permits = new Semaphore(maxRequests, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        Gauge.builder("auth.concurrency.in-flight", permits, p -> maxRequests - p.availablePermits())
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.concurrency.rejected")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || publicRoutes.match(request) == PublicRoutes.Kind.STATIC;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejectedCounter.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\": true, \"message\": \"Server is busy, please try again\"}");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package amol.com.authmatrixbackend.filter;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -8,8 +9,14 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import amol.com.authmatrixbackend.config.PublicRoutes;
+import amol.com.authmatrixbackend.security.AuthMetrics;
+import amol.com.authmatrixbackend.security.TokenPrincipal;
+import amol.com.authmatrixbackend.security.TokenRevocationService;
+import amol.com.authmatrixbackend.security.VerifiedTokenCache;
 import amol.com.authmatrixbackend.service.AppUserDetailsService;
 import amol.com.authmatrixbackend.util.JwtUtil;
+import amol.com.authmatrixbackend.util.VerifiedToken;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -17,7 +24,6 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 
 import java.io.IOException;
-import java.util.List;
 
 import lombok.RequiredArgsConstructor;
 import io.jsonwebtoken.ExpiredJwtException;
@@ -30,20 +36,20 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final AppUserDetailsService appUserDetailsService;
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final PublicRoutes publicRoutes;
+    private final TokenRevocationService tokenRevocationService;
+    private final AuthMetrics authMetrics;
 
-    private static final List<String> PUBLIC_URL_PREFIXES = List.of(
-            "/", "/index.html", "/favicon.ico", "/favicon.png", "/assets/",
-            "/manifest.json", "/logo192.png", "/logo512.png",
-            "/register", "/login", "/verify-otp", "/is-authenticated",
-            "/send-reset-otp", "/reset-password", "/logout", "/debug-auth"
-           
-    );
+    // token: principal built from verified claims, no DB hit; database: cached UserDetails lookup
+    @Value("#{'${jwt.principal-source:database}' == 'token'}")
+    private boolean principalFromToken;
 
     private String extractJwtFromRequest(HttpServletRequest request) {
         // 1) Check Authorization header
         final String authorizationHeader = request.getHeader("Authorization");
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            logger.info("Found Authorization header with Bearer token");
+            logger.debug("Found Authorization header with Bearer token");
             return authorizationHeader.substring(7);
         }
 
@@ -52,7 +58,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         if (cookies != null) {
             for (Cookie cookie : cookies) {
                 if ("jwt".equals(cookie.getName())) {
-                    logger.info("Found jwt cookie");
+                    logger.debug("Found jwt cookie");
                     return cookie.getValue();
                 }
             }
@@ -70,12 +76,12 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         String requestUri = request.getRequestURI();
 
-        // Mark as public if it matches known prefixes or is a static asset
-        boolean isPublic = PUBLIC_URL_PREFIXES.stream()
-                .anyMatch(prefix -> requestUri.equals(prefix) || requestUri.startsWith(prefix))
-                || requestUri.matches(".*\\.(js|css|png|svg|woff2|ttf)$");
+        // Static files and anonymous endpoints never need the caller's identity
+        boolean isPublic = publicRoutes.skipsAuthentication(request);
 
-        logger.debug("Processing request URI: " + requestUri + " | isPublic: " + isPublic);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Processing request URI: " + requestUri + " | isPublic: " + isPublic);
+        }
 
         if (isPublic) {
             // For public endpoints, just continue filter chain without auth check.
@@ -85,53 +91,78 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         String jwt = extractJwtFromRequest(request);
         if (jwt == null) {
-            logger.warn("No JWT found for protected route: " + requestUri);
+            logger.debug("No JWT found for protected route: " + requestUri);
             SecurityContextHolder.clearContext();  // Clear context if no token
             filterChain.doFilter(request, response);
             return;
         }
 
+        long start = System.nanoTime();
+        AuthMetrics.JwtOutcome outcome = AuthMetrics.JwtOutcome.VALID;
         try {
-            String email = jwtUtil.extractEmail(jwt);
+            VerifiedToken token = verifiedTokenCache.get(jwt, jwtUtil::verify);
+
+            // Checked on every request, including cache hits
+            if (tokenRevocationService.isRevoked(token)) {
+                logger.debug("Rejected revoked JWT for " + requestUri);
+                outcome = AuthMetrics.JwtOutcome.REVOKED;
+                SecurityContextHolder.clearContext();
+                authMetrics.jwtVerified(outcome, System.nanoTime() - start);
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            String email = token.subject();
             logger.debug("Email extracted from token: " + email);
 
             // Defensive check: reject "anonymousUser"
             if (email == null || email.equalsIgnoreCase("anonymousUser")) {
                 logger.warn("Extracted email is null or anonymousUser - rejecting token");
+                outcome = AuthMetrics.JwtOutcome.INVALID;
                 SecurityContextHolder.clearContext();
+                authMetrics.jwtVerified(outcome, System.nanoTime() - start);
                 filterChain.doFilter(request, response);
                 return;
             }
 
             if (SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = appUserDetailsService.loadUserByUsername(email);
+                UserDetails userDetails = principalFromToken
+                        ? TokenPrincipal.from(token)
+                        : appUserDetailsService.loadCachedUserByUsername(email);
 
-                if (jwtUtil.validateToken(jwt, userDetails)) {
+                if (jwtUtil.validateToken(token, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
-                    logger.info("JWT validated and SecurityContext set for user: " + email);
+                    logger.debug("JWT validated and SecurityContext set for user: " + email);
                 } else {
-                    logger.warn("JWT validation failed for user: " + email);
+                    logger.debug("JWT validation failed for user: " + email);
+                    outcome = AuthMetrics.JwtOutcome.INVALID;
                     SecurityContextHolder.clearContext();
                 }
             } else {
                 logger.debug("User already authenticated in SecurityContext.");
             }
         } catch (ExpiredJwtException eje) {
-            logger.warn("Token expired: " + eje.getMessage(), eje);
+            // Routine with short-lived access tokens; the client refreshes
+            logger.debug("Token expired: " + eje.getMessage());
+            outcome = AuthMetrics.JwtOutcome.EXPIRED;
             SecurityContextHolder.clearContext();
         } catch (SignatureException sie) {
-            logger.warn("Invalid JWT signature: " + sie.getMessage(), sie);
+            logger.warn("Invalid JWT signature: " + sie.getMessage());
+            outcome = AuthMetrics.JwtOutcome.BAD_SIGNATURE;
             SecurityContextHolder.clearContext();
         } catch (MalformedJwtException mje) {
-            logger.warn("Malformed JWT: " + mje.getMessage(), mje);
+            logger.warn("Malformed JWT: " + mje.getMessage());
+            outcome = AuthMetrics.JwtOutcome.MALFORMED;
             SecurityContextHolder.clearContext();
         } catch (Exception ex) {
             logger.error("Unexpected JWT processing error for " + requestUri + ": " + ex.getMessage(), ex);
+            outcome = AuthMetrics.JwtOutcome.ERROR;
             SecurityContextHolder.clearContext();
         }
+        authMetrics.jwtVerified(outcome, System.nanoTime() - start);
 
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,66 @@
+package amol.com.authmatrixbackend.filter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import amol.com.authmatrixbackend.security.RateLimiterBackend;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Per-email limit for the OTP endpoints of a signed-in user, whose email is the principal rather than part of the
+// body. Runs right after JwtRequestFilter and shares the email buckets of RateLimitFilter; the per-IP limit has
+// already been applied before token verification.
+@Component
+public class PrincipalRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> LIMITED_PATHS = Set.of("/send-otp", "/verify-otp");
+
+    private final RateLimiterBackend backend;
+    private final boolean enabled;
+    private final RateLimiterBackend.Limit emailLimit;
+
+    public PrincipalRateLimitFilter(RateLimiterBackend backend,
+                                    @Value("${auth.rate-limit.enabled:true}") boolean enabled,
+                                    @Value("${auth.rate-limit.email.capacity:5}") long emailCapacity,
+                                    @Value("${auth.rate-limit.email.refill-period:PT1M}") Duration emailRefillPeriod) {
+        this.backend = backend;
+        this.enabled = enabled;
+        this.emailLimit = new RateLimiterBackend.Limit(emailCapacity, emailRefillPeriod);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled
+                || !HttpMethod.POST.matches(request.getMethod())
+                || !LIMITED_PATHS.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            Duration retryAfter = backend.tryAcquire(RateLimitFilter.emailKey(auth.getName()), emailLimit);
+            if (!retryAfter.isZero()) {
+                RateLimitFilter.reject(response, retryAfter);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
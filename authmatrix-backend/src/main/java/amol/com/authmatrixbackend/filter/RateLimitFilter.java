@@ -0,0 +1,145 @@
+package amol.com.authmatrixbackend.filter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import amol.com.authmatrixbackend.security.RateLimiterBackend;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Throttles credential and OTP endpoints per client IP and per email before any DB or crypto work runs.
+// The client IP is getRemoteAddr(), which server.forward-headers-strategy resolves from X-Forwarded-For behind
+// the proxy. Endpoints that take the email in the body are limited per email here; the OTP endpoints of a
+// signed-in user are limited per principal by PrincipalRateLimitFilter once the token has been verified.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> LIMITED_PATHS = Set.of(
+            "/login", "/refresh", "/send-otp", "/send-reset-otp", "/verify-otp", "/reset-password");
+
+    private static final Set<String> BODY_EMAIL_PATHS = Set.of("/login", "/send-reset-otp", "/reset-password");
+
+    // Credential requests are tiny; anything larger is rejected rather than let through unlimited per email
+    private static final int MAX_INSPECTED_BODY = 16 * 1024;
+
+    private final RateLimiterBackend backend;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final RateLimiterBackend.Limit ipLimit;
+    private final RateLimiterBackend.Limit emailLimit;
+
+    public RateLimitFilter(RateLimiterBackend backend,
+                           ObjectMapper objectMapper,
+                           @Value("${auth.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${auth.rate-limit.ip.capacity:30}") long ipCapacity,
+                           @Value("${auth.rate-limit.ip.refill-period:PT1M}") Duration ipRefillPeriod,
+                           @Value("${auth.rate-limit.email.capacity:5}") long emailCapacity,
+                           @Value("${auth.rate-limit.email.refill-period:PT1M}") Duration emailRefillPeriod) {
+        this.backend = backend;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.ipLimit = new RateLimiterBackend.Limit(ipCapacity, ipRefillPeriod);
+        this.emailLimit = new RateLimiterBackend.Limit(emailCapacity, emailRefillPeriod);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled
+                || !HttpMethod.POST.matches(request.getMethod())
+                || !LIMITED_PATHS.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Duration retryAfter = backend.tryAcquire("ip:" + request.getRemoteAddr(), ipLimit);
+        if (!retryAfter.isZero()) {
+            reject(response, retryAfter);
+            return;
+        }
+
+        HttpServletRequest forwarded = request;
+        String email = null;
+        if (BODY_EMAIL_PATHS.contains(request.getRequestURI())) {
+            email = request.getParameter("email");
+            if (email == null && isJson(request)) {
+                // Read up to the limit whatever Content-Length says, so chunked bodies are limited too
+                if (request.getContentLengthLong() > MAX_INSPECTED_BODY) {
+                    rejectTooLarge(response);
+                    return;
+                }
+                byte[] body = request.getInputStream().readNBytes(MAX_INSPECTED_BODY + 1);
+                if (body.length > MAX_INSPECTED_BODY) {
+                    rejectTooLarge(response);
+                    return;
+                }
+                email = emailFromJson(body);
+                forwarded = new CachedBodyHttpServletRequest(request, body);
+            }
+        }
+
+        if (email != null && !email.isBlank()) {
+            retryAfter = backend.tryAcquire(emailKey(email), emailLimit);
+            if (!retryAfter.isZero()) {
+                reject(response, retryAfter);
+                return;
+            }
+        }
+
+        filterChain.doFilter(forwarded, response);
+    }
+
+    // Shared with PrincipalRateLimitFilter so a body email and the same signed-in user draw from one bucket
+    static String emailKey(String email) {
+        return "email:" + email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isJson(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null
+                && contentType.toLowerCase(Locale.ROOT).startsWith(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private String emailFromJson(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText() : null;
+        } catch (IOException ex) {
+            // Malformed JSON is left for the controller to reject
+            return null;
+        }
+    }
+
+    static void reject(HttpServletResponse response, Duration retryAfter) throws IOException {
+        long seconds = Math.max(1L, (retryAfter.toMillis() + 999) / 1000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\": true, \"message\": \"Too many requests, please try again later\"}");
+    }
+
+    private static void rejectTooLarge(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\": true, \"message\": \"Request body too large\"}");
+    }
+}
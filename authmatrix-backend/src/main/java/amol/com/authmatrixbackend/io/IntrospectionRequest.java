@@ -0,0 +1,18 @@
+package amol.com.authmatrixbackend.io;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IntrospectionRequest {
+    @NotEmpty
+    @Size(max = 500)
+    private List<String> tokens;
+}
@@ -0,0 +1,41 @@
+package amol.com.authmatrixbackend.io;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// RFC 7662 style; results are in the same order as the submitted tokens
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IntrospectionResponse {
+    private List<Result> results;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Result {
+        private boolean active;
+        private String sub;
+        private String uid;
+        private String sid;
+        private String jti;
+        private Long iat;
+        private Long exp;
+        private List<String> roles;
+        @JsonProperty("account_verified")
+        private Boolean accountVerified;
+
+        public static Result inactive() {
+            return Result.builder().active(false).build();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package amol.com.authmatrixbackend.repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import amol.com.authmatrixbackend.entity.EmailOutboxEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxEntity, Long> {
+
+    // SKIP LOCKED (lock timeout -2) where the dialect supports it, so several nodes can drain the outbox concurrently
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from EmailOutboxEntity e where e.status = :status and e.nextAttemptAt <= :now order by e.id")
+    List<EmailOutboxEntity> findDueForUpdate(@Param("status") EmailOutboxEntity.Status status,
+                                             @Param("now") Long now,
+                                             Pageable pageable);
+
+    @Modifying
+    @Query("delete from EmailOutboxEntity e where e.status <> :pending and e.createdAt < :cutoff")
+    int deleteFinishedBefore(@Param("pending") EmailOutboxEntity.Status pending, @Param("cutoff") Timestamp cutoff);
+}
@@ -0,0 +1,32 @@
+package amol.com.authmatrixbackend.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import amol.com.authmatrixbackend.entity.RefreshTokenEntity;
+import jakarta.persistence.LockModeType;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, Long> {
+
+    // Row lock so two concurrent refreshes with the same token cannot both rotate it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from RefreshTokenEntity r where r.tokenHash = :tokenHash")
+    Optional<RefreshTokenEntity> findByTokenHashForUpdate(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("update RefreshTokenEntity r set r.revoked = true where r.familyId = :familyId")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("update RefreshTokenEntity r set r.revoked = true where r.email = :email")
+    int revokeAllForEmail(@Param("email") String email);
+
+    @Modifying
+    @Query("delete from RefreshTokenEntity r where r.expiresAt < :cutoff")
+    int deleteExpired(@Param("cutoff") Long cutoff);
+}
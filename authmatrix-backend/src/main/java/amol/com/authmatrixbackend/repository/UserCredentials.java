@@ -0,0 +1,11 @@
+package amol.com.authmatrixbackend.repository;
+
+import amol.com.authmatrixbackend.entity.UserEntity;
+
+// Read model for Spring Security's UserDetailsService: the email and password hash only
+public record UserCredentials(String email, String password) {
+
+    public static UserCredentials of(UserEntity user) {
+        return new UserCredentials(user.getEmail(), user.getPassword());
+    }
+}
@@ -0,0 +1,16 @@
+package amol.com.authmatrixbackend.repository;
+
+import amol.com.authmatrixbackend.entity.UserEntity;
+
+// Read model for the login check: the summary columns plus the password hash
+public record UserLogin(String userId, String name, String email, String password, Boolean isAccountVerified) {
+
+    public static UserLogin of(UserEntity user) {
+        return new UserLogin(user.getUserId(), user.getName(), user.getEmail(), user.getPassword(),
+                user.getIsAccountVerified());
+    }
+
+    public UserSummary summary() {
+        return new UserSummary(userId, name, email, isAccountVerified);
+    }
+}
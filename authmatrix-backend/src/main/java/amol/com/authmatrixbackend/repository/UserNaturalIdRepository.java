@@ -0,0 +1,11 @@
+package amol.com.authmatrixbackend.repository;
+
+import java.util.Optional;
+
+import amol.com.authmatrixbackend.entity.UserEntity;
+
+public interface UserNaturalIdRepository {
+
+    // Resolved through the natural-id and entity caches; only a cache miss reaches the database
+    Optional<UserEntity> findByEmail(String email);
+}
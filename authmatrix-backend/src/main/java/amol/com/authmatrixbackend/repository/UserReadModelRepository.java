@@ -0,0 +1,17 @@
+package amol.com.authmatrixbackend.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Read paths get these records instead of managed UserEntity instances; findByEmail is for paths that modify the user
+public interface UserReadModelRepository {
+
+    Optional<UserCredentials> findCredentialsByEmail(String email);
+
+    Optional<UserLogin> findLoginByEmail(String email);
+
+    Optional<UserSummary> findSummaryByEmail(String email);
+
+    List<UserSummary> findSummariesByEmailIn(Collection<String> emails);
+}
@@ -0,0 +1,61 @@
+package amol.com.authmatrixbackend.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import amol.com.authmatrixbackend.entity.UserEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Spring Data fragment for UserRepository; the entity never leaves this class. Called outside a transaction, each
+// method runs in a read-only one: Hibernate does not flush and loads the entity read-only, without a dirty-checking
+// snapshot. Lookups of one email go through the natural-id and entity caches, which answer a hit without SQL and
+// beat a column projection (see UserReadBenchmark). The cache cannot answer an IN (...), so the batch lookup
+// selects only the summary columns with a constructor expression and hydrates no entity at all.
+class UserReadModelRepositoryImpl implements UserReadModelRepository {
+
+    private static final String SUMMARIES_BY_EMAIL =
+            "select new amol.com.authmatrixbackend.repository.UserSummary(u.userId, u.name, u.email, u.isAccountVerified) "
+                    + "from UserEntity u where u.email in :emails";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UserCredentials> findCredentialsByEmail(String email) {
+        return load(email, UserCredentials::of);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UserLogin> findLoginByEmail(String email) {
+        return load(email, UserLogin::of);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UserSummary> findSummaryByEmail(String email) {
+        return load(email, UserSummary::of);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserSummary> findSummariesByEmailIn(Collection<String> emails) {
+        return entityManager.createQuery(SUMMARIES_BY_EMAIL, UserSummary.class)
+                .setParameter("emails", emails)
+                .getResultList();
+    }
+
+    private <T> Optional<T> load(String email, Function<UserEntity, T> readModel) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(UserEntity.class)
+                .loadOptional(email)
+                .map(readModel);
+    }
+}
@@ -1,15 +1,35 @@
 package amol.com.authmatrixbackend.repository;
 
-import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import amol.com.authmatrixbackend.entity.UserEntity;
+import jakarta.persistence.QueryHint;
 
-public interface UserRepository extends JpaRepository<UserEntity, Long> {
+public interface UserRepository extends JpaRepository<UserEntity, Long>, UserNaturalIdRepository, UserReadModelRepository {
 
-    Optional<UserEntity> findByEmail(String email);
-    
     Boolean existsByEmail(String email);
 
+    // Must be consumed inside a transaction and closed; rows are fetched 1000 at a time rather than all at once
+    // (on MySQL this relies on useCursorFetch=true, set in application.properties)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.email from UserEntity u")
+    Stream<String> streamAllEmails();
+
+    // Only replaces the hash if it has not changed since it was read (e.g. by a concurrent password reset).
+    // As a bulk update it makes Hibernate evict the users cache regions.
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update UserEntity u set u.password = :newPassword where u.email = :email and u.password = :oldPassword")
+    int updatePasswordIfUnchanged(@Param("email") String email,
+                                  @Param("oldPassword") String oldPassword,
+                                  @Param("newPassword") String newPassword);
+
    
 }
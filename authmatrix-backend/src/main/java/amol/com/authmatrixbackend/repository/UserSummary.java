@@ -0,0 +1,11 @@
+package amol.com.authmatrixbackend.repository;
+
+import amol.com.authmatrixbackend.entity.UserEntity;
+
+// Read model for profile responses, token claims and introspection; everything but the password and timestamps
+public record UserSummary(String userId, String name, String email, Boolean isAccountVerified) {
+
+    public static UserSummary of(UserEntity user) {
+        return new UserSummary(user.getUserId(), user.getName(), user.getEmail(), user.getIsAccountVerified());
+    }
+}
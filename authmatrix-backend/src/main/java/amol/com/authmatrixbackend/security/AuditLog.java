@@ -0,0 +1,195 @@
+package amol.com.authmatrixbackend.security;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import amol.com.authmatrixbackend.util.RingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Authentication audit trail. Request threads only build an AuthEvent and offer it to a lock-free ring buffer;
+// a single background writer drains it into tbl_auth_audit with JDBC batch inserts and, optionally, writes one
+// compact JSON line per event to the "audit" logger. When the buffer is full the configured overflow policy
+// drops an event instead of blocking, and every drop is counted.
+@Component
+public class AuditLog {
+
+    public enum Overflow {
+        // Keep what is queued and discard the incoming event
+        DROP_NEWEST,
+        // Discard the oldest queued event to make room for the incoming one
+        DROP_OLDEST
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+    private static final Logger jsonLog = LoggerFactory.getLogger("audit");
+
+    private static final String INSERT =
+            "INSERT INTO tbl_auth_audit (occurred_at, type, email, ip, session_id, detail) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final RingBuffer<AuthEvent> buffer;
+    private final Overflow overflow;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final boolean jsonLines;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+
+    // Platform thread for the same reason as the outbox dispatcher: blocking JDBC off the virtual-thread scheduler
+    private ScheduledExecutorService writer;
+
+    public AuditLog(JdbcTemplate jdbcTemplate,
+                    ObjectMapper objectMapper,
+                    MeterRegistry meterRegistry,
+                    @Value("${auth.audit.enabled:true}") boolean enabled,
+                    @Value("${auth.audit.buffer-size:8192}") int bufferSize,
+                    @Value("${auth.audit.overflow:DROP_NEWEST}") Overflow overflow,
+                    @Value("${auth.audit.batch-size:500}") int batchSize,
+                    @Value("${auth.audit.flush-interval:PT0.5S}") Duration flushInterval,
+                    @Value("${auth.audit.json-lines:false}") boolean jsonLines) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.buffer = new RingBuffer<>(bufferSize);
+        this.overflow = overflow;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.jsonLines = jsonLines;
+        Gauge.builder("auth.audit.queued", buffer, RingBuffer::size)
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("auth.audit.dropped")
+                .description("Audit events lost because the buffer was full")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("auth.audit.written").register(meterRegistry);
+        this.failedCounter = Counter.builder("auth.audit.failures").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "auth-audit-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::scheduledFlush,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer != null) {
+            writer.shutdown();
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+            flush();
+        }
+    }
+
+    // Never blocks and never throws into the caller; the client IP is taken from the current request, if any
+    public void record(AuthEvent.Type type, String email, String sessionId, String detail) {
+        if (!enabled) {
+            return;
+        }
+        AuthEvent event = new AuthEvent(System.currentTimeMillis(), type,
+                truncate(email, 255), currentIp(), truncate(sessionId, 64), truncate(detail, 255));
+        if (buffer.offer(event)) {
+            return;
+        }
+        if (overflow == Overflow.DROP_OLDEST) {
+            // Another producer may claim the freed slot first, in which case this event is the one dropped
+            if (buffer.poll() != null) {
+                droppedCounter.increment();
+            }
+            if (buffer.offer(event)) {
+                return;
+            }
+        }
+        droppedCounter.increment();
+    }
+
+    void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            // An uncaught exception would cancel the fixed-delay schedule
+            log.error("Audit flush failed", ex);
+        }
+    }
+
+    // Returns the number of events written to the audit table
+    public int flush() {
+        int written = 0;
+        List<AuthEvent> batch = new ArrayList<>(Math.min(batchSize, buffer.capacity()));
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            written += write(batch);
+            batch.clear();
+        }
+        return written;
+    }
+
+    private int write(List<AuthEvent> batch) {
+        if (jsonLines) {
+            for (AuthEvent event : batch) {
+                try {
+                    jsonLog.info(objectMapper.writeValueAsString(event));
+                } catch (JsonProcessingException ex) {
+                    log.warn("Could not serialize audit event {}", event.type(), ex);
+                }
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (statement, event) -> {
+                statement.setLong(1, event.occurredAt());
+                statement.setString(2, event.type().name());
+                statement.setString(3, event.email());
+                statement.setString(4, event.ip());
+                statement.setString(5, event.sessionId());
+                statement.setString(6, event.detail());
+            });
+            writtenCounter.increment(batch.size());
+            return batch.size();
+        } catch (DataAccessException ex) {
+            // Not retried: a database outage must not turn into an unbounded backlog in memory
+            failedCounter.increment(batch.size());
+            log.warn("Dropped {} audit events: {}", batch.size(), ex.getMessage());
+            return 0;
+        }
+    }
+
+    private static String currentIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes
+                ? servletAttributes.getRequest().getRemoteAddr()
+                : null;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
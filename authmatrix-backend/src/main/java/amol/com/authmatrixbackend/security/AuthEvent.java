@@ -0,0 +1,22 @@
+package amol.com.authmatrixbackend.security;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// One security-relevant event. Never carries tokens, OTPs or passwords; sessionId is the refresh-token family id
+// (the "sid" claim), which identifies a login session without being a credential.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AuthEvent(long occurredAt, Type type, String email, String ip, String sessionId, String detail) {
+
+    public enum Type {
+        LOGIN_SUCCEEDED,
+        LOGIN_FAILED,
+        LOGIN_LOCKED,
+        LOGOUT,
+        OTP_SENT,
+        OTP_VERIFIED,
+        OTP_REJECTED,
+        PASSWORD_RESET_REQUESTED,
+        PASSWORD_RESET,
+        PASSWORD_RESET_REJECTED
+    }
+}
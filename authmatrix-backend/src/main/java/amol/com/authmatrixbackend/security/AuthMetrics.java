@@ -0,0 +1,107 @@
+package amol.com.authmatrixbackend.security;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import amol.com.authmatrixbackend.service.OtpStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Meters for the auth hot paths. Every tag value comes from a fixed enum and all meters are registered up front,
+// so recording is a map read plus an atomic update and the scrape size never grows with traffic.
+@Component
+public class AuthMetrics {
+
+    public enum JwtOutcome { VALID, INVALID, REVOKED, EXPIRED, BAD_SIGNATURE, MALFORMED, ERROR }
+
+    public enum LoginOutcome { SUCCESS, BAD_CREDENTIALS, LOCKED, ERROR }
+
+    // db: user lookup, hash: password check, sign: access token, session: refresh-token insert
+    public enum LoginPhase { DB, HASH, SIGN, SESSION }
+
+    public enum OtpAction { ISSUE, VERIFY }
+
+    private final Map<JwtOutcome, Timer> jwtVerify = new EnumMap<>(JwtOutcome.class);
+    private final Map<LoginOutcome, Timer> login = new EnumMap<>(LoginOutcome.class);
+    private final Map<LoginPhase, Timer> loginPhase = new EnumMap<>(LoginPhase.class);
+    private final Map<OtpStore.Purpose, Counter> otpIssued = new EnumMap<>(OtpStore.Purpose.class);
+    private final Map<OtpStore.Purpose, Map<OtpStore.Result, Counter>> otpVerified = new EnumMap<>(OtpStore.Purpose.class);
+    private final Timer emailSend;
+    private final Counter emailSent;
+    private final Counter emailFailed;
+
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        for (JwtOutcome outcome : JwtOutcome.values()) {
+            jwtVerify.put(outcome, Timer.builder("auth.jwt.verify")
+                    .description("JWT verification in the request filter, including cache lookup and revocation check")
+                    .tag("outcome", tag(outcome))
+                    .register(meterRegistry));
+        }
+        for (LoginOutcome outcome : LoginOutcome.values()) {
+            login.put(outcome, Timer.builder("auth.login")
+                    .tag("outcome", tag(outcome))
+                    .register(meterRegistry));
+        }
+        for (LoginPhase phase : LoginPhase.values()) {
+            loginPhase.put(phase, Timer.builder("auth.login.phase")
+                    .tag("phase", tag(phase))
+                    .register(meterRegistry));
+        }
+        for (OtpStore.Purpose purpose : OtpStore.Purpose.values()) {
+            otpIssued.put(purpose, otpCounter(meterRegistry, purpose, OtpAction.ISSUE, "issued"));
+            Map<OtpStore.Result, Counter> results = new EnumMap<>(OtpStore.Result.class);
+            for (OtpStore.Result result : OtpStore.Result.values()) {
+                results.put(result, otpCounter(meterRegistry, purpose, OtpAction.VERIFY, tag(result)));
+            }
+            otpVerified.put(purpose, results);
+        }
+        this.emailSend = Timer.builder("auth.email.send")
+                .description("One SMTP round for an outbox batch")
+                .register(meterRegistry);
+        this.emailSent = Counter.builder("auth.email.delivered").register(meterRegistry);
+        this.emailFailed = Counter.builder("auth.email.failures").register(meterRegistry);
+    }
+
+    public void jwtVerified(JwtOutcome outcome, long nanos) {
+        jwtVerify.get(outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void login(LoginOutcome outcome, long nanos) {
+        login.get(outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void loginPhase(LoginPhase phase, long nanos) {
+        loginPhase.get(phase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void otpIssued(OtpStore.Purpose purpose) {
+        otpIssued.get(purpose).increment();
+    }
+
+    public void otpVerified(OtpStore.Purpose purpose, OtpStore.Result result) {
+        otpVerified.get(purpose).get(result).increment();
+    }
+
+    public void emailBatch(long nanos, int delivered, int failed) {
+        emailSend.record(nanos, TimeUnit.NANOSECONDS);
+        emailSent.increment(delivered);
+        emailFailed.increment(failed);
+    }
+
+    private static Counter otpCounter(MeterRegistry meterRegistry, OtpStore.Purpose purpose, OtpAction action, String result) {
+        return Counter.builder("auth.otp")
+                .tag("purpose", tag(purpose))
+                .tag("action", tag(action))
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String tag(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,50 @@
+package amol.com.authmatrixbackend.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// In-process buckets (also used by tests). Each bucket is a single AtomicLong updated by CAS using the
+// generic cell rate algorithm, which behaves like a token bucket without a refill timer or a lock.
+@Component
+@ConditionalOnProperty(name = "auth.rate-limit.backend", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimiterBackend implements RateLimiterBackend {
+
+    // Theoretical arrival time (System.nanoTime based) of the next request per key
+    private final Cache<String, AtomicLong> buckets;
+
+    public InMemoryRateLimiterBackend(@Value("${auth.rate-limit.max-keys:100000}") long maxKeys,
+                                      @Value("${auth.rate-limit.idle-timeout:PT10M}") Duration idleTimeout) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    @Override
+    public Duration tryAcquire(String key, Limit limit) {
+        long interval = limit.refillPeriod().toNanos() / limit.capacity();
+        long burst = interval * limit.capacity();
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+
+        while (true) {
+            long now = System.nanoTime();
+            long stored = bucket.get();
+            long tat = stored == Long.MIN_VALUE || stored - now < 0 ? now : stored;
+            long newTat = tat + interval;
+            long allowAt = newTat - burst;
+            if (allowAt - now > 0) {
+                return Duration.ofNanos(allowAt - now);
+            }
+            if (bucket.compareAndSet(stored, newTat)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+}
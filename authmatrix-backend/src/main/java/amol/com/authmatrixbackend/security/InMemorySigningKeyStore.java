@@ -0,0 +1,31 @@
+package amol.com.authmatrixbackend.security;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Single-node deployments and tests; keys are regenerated on restart, which invalidates every issued token.
+// Several SigningKeyRing instances sharing one store behave like separate nodes.
+@Component
+@ConditionalOnProperty(name = "jwt.signing.store", havingValue = "memory")
+public class InMemorySigningKeyStore implements SigningKeyStore {
+
+    private final ConcurrentSkipListMap<Long, StoredKey> keys = new ConcurrentSkipListMap<>();
+
+    @Override
+    public List<StoredKey> findAll() {
+        return List.copyOf(keys.values());
+    }
+
+    @Override
+    public boolean insert(StoredKey key) {
+        return keys.putIfAbsent(key.activatesAt(), key) == null;
+    }
+
+    @Override
+    public void delete(String kid) {
+        keys.values().removeIf(key -> key.kid().equals(kid));
+    }
+}
@@ -0,0 +1,122 @@
+package amol.com.authmatrixbackend.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.List;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Shared keyring for multi-node deployments; keys live in tbl_signing_key (see SigningKeyEntity).
+// Anyone who can read a private key can forge tokens, so with jwt.signing.encryption-key set they are stored
+// AES-GCM encrypted under a key derived from it, bound to their kid. Rows written without it (a leading DER
+// SEQUENCE byte) are still read, and age out with the next rotation.
+@Component
+@ConditionalOnProperty(name = "jwt.signing.store", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcSigningKeyStore implements SigningKeyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcSigningKeyStore.class);
+    private static final byte ENCRYPTED = 1;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SecretKey encryptionKey;
+
+    public JdbcSigningKeyStore(JdbcTemplate jdbcTemplate,
+                               @Value("${jwt.signing.encryption-key:}") String encryptionKey) {
+        this.jdbcTemplate = jdbcTemplate;
+        if (encryptionKey.isBlank()) {
+            log.warn("jwt.signing.encryption-key is not set; signing keys are stored unencrypted in tbl_signing_key");
+            this.encryptionKey = null;
+        } else {
+            this.encryptionKey = new SecretKeySpec(sha256(encryptionKey), "AES");
+        }
+    }
+
+    @Override
+    public List<StoredKey> findAll() {
+        return jdbcTemplate.query(
+                "SELECT kid, private_key, public_key, activates_at FROM tbl_signing_key ORDER BY activates_at",
+                (rs, rowNum) -> new StoredKey(rs.getString(1), decrypt(rs.getString(1), rs.getBytes(2)),
+                        rs.getBytes(3), rs.getLong(4)));
+    }
+
+    @Override
+    public boolean insert(StoredKey key) {
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO tbl_signing_key (kid, private_key, public_key, activates_at) VALUES (?, ?, ?, ?)",
+                    key.kid(), encrypt(key.kid(), key.privateKey()), key.publicKey(), key.activatesAt());
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public void delete(String kid) {
+        jdbcTemplate.update("DELETE FROM tbl_signing_key WHERE kid = ?", kid);
+    }
+
+    // Layout: 0x01, IV, ciphertext with tag
+    private byte[] encrypt(String kid, byte[] privateKey) {
+        if (encryptionKey == null) {
+            return privateKey;
+        }
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            RANDOM.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            byte[] ciphertext = cipher.doFinal(privateKey);
+            return ByteBuffer.allocate(1 + IV_LENGTH + ciphertext.length)
+                    .put(ENCRYPTED)
+                    .put(iv)
+                    .put(ciphertext)
+                    .array();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not encrypt signing key " + kid, e);
+        }
+    }
+
+    private byte[] decrypt(String kid, byte[] stored) {
+        if (stored.length == 0 || stored[0] != ENCRYPTED) {
+            return stored;
+        }
+        if (encryptionKey == null) {
+            throw new IllegalStateException("Signing key " + kid + " is encrypted but jwt.signing.encryption-key is not set");
+        }
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_BITS, stored, 1, IV_LENGTH));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            return cipher.doFinal(stored, 1 + IV_LENGTH, stored.length - 1 - IV_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not decrypt signing key " + kid + "; check jwt.signing.encryption-key", e);
+        }
+    }
+
+    private static byte[] sha256(String secret) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package amol.com.authmatrixbackend.security;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// In-process channel for single-node deployments and tests; several TokenRevocationService instances
+// sharing one channel behave like separate nodes
+@Component
+@ConditionalOnProperty(name = "jwt.revocation.channel", havingValue = "local", matchIfMissing = true)
+public class LocalRevocationChannel implements RevocationChannel {
+
+    private final List<Consumer<RevocationEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(RevocationEvent event) {
+        listeners.forEach(listener -> listener.accept(event));
+    }
+
+    @Override
+    public void subscribe(Consumer<RevocationEvent> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,268 @@
+package amol.com.authmatrixbackend.security;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Failed-login counters per email and per client IP, kept in memory so a wrong password costs no database write.
+// Each counter is a leaky bucket in a single AtomicLong (the time at which it drains to zero), so it decays by one
+// failure every decay period and is updated by CAS like the rate-limit buckets. Reaching max-failures locks the
+// key for initial-duration, growing by multiplier on every further lock up to max-duration. Locks are written to
+// tbl_login_lockout off the request thread only when they engage or clear, and reloaded at startup.
+@Component
+public class LoginLockout {
+
+    public enum Scope { EMAIL, IP }
+
+    record Policy(int maxFailures, Duration decay) {
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(LoginLockout.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Policy emailPolicy;
+    private final Policy ipPolicy;
+    private final Duration initialDuration;
+    private final Duration maxDuration;
+    private final double multiplier;
+    private final Cache<String, Failures> failures;
+    private final Counter emailLocks;
+    private final Counter ipLocks;
+
+    // Single platform thread so lock writes are applied in order and never block a request
+    private ExecutorService writer;
+
+    public LoginLockout(JdbcTemplate jdbcTemplate,
+                        MeterRegistry meterRegistry,
+                        @Value("${auth.lockout.enabled:true}") boolean enabled,
+                        @Value("${auth.lockout.email.max-failures:10}") int emailMaxFailures,
+                        @Value("${auth.lockout.email.decay:PT3M}") Duration emailDecay,
+                        @Value("${auth.lockout.ip.max-failures:100}") int ipMaxFailures,
+                        @Value("${auth.lockout.ip.decay:PT18S}") Duration ipDecay,
+                        @Value("${auth.lockout.initial-duration:PT1M}") Duration initialDuration,
+                        @Value("${auth.lockout.max-duration:PT1H}") Duration maxDuration,
+                        @Value("${auth.lockout.multiplier:2}") double multiplier,
+                        @Value("${auth.lockout.max-keys:100000}") long maxKeys,
+                        @Value("${auth.lockout.idle-timeout:PT2H}") Duration idleTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.emailPolicy = new Policy(emailMaxFailures, emailDecay);
+        this.ipPolicy = new Policy(ipMaxFailures, ipDecay);
+        this.initialDuration = initialDuration;
+        this.maxDuration = maxDuration;
+        this.multiplier = multiplier;
+        // An idle entry must outlive the longest lock it can hold
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout.compareTo(maxDuration) > 0 ? idleTimeout : maxDuration)
+                .build();
+        this.emailLocks = lockCounter(meterRegistry, Scope.EMAIL);
+        this.ipLocks = lockCounter(meterRegistry, Scope.IP);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "login-lockout-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer != null) {
+            writer.shutdown();
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    // Restores locks that were still active when the previous instance stopped
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long nowMillis = System.currentTimeMillis();
+        long now = System.nanoTime();
+        jdbcTemplate.update("DELETE FROM tbl_login_lockout WHERE locked_until <= ?", nowMillis);
+        jdbcTemplate.query("SELECT lock_key, locked_until, lockouts FROM tbl_login_lockout", rs -> {
+            String key = rs.getString(1);
+            Policy policy = key.startsWith("ip:") ? ipPolicy : emailPolicy;
+            Failures restored = new Failures(now);
+            restored.lockedUntil = now + TimeUnit.MILLISECONDS.toNanos(rs.getLong(2) - nowMillis);
+            restored.lockouts = rs.getInt(3);
+            // Resumes one failure below the threshold
+            restored.drainsAt.set(now + policy.decay().toNanos() * (policy.maxFailures() - 1));
+            failures.put(key, restored);
+        });
+    }
+
+    // Duration.ZERO when neither the email nor the IP is locked, otherwise the longer remaining lock
+    public Duration retryAfter(String email, String ip) {
+        if (!enabled) {
+            return Duration.ZERO;
+        }
+        long now = System.nanoTime();
+        long remaining = Math.max(remaining(emailKey(email), now), remaining(ipKey(ip), now));
+        return remaining > 0 ? Duration.ofNanos(remaining) : Duration.ZERO;
+    }
+
+    // Counts a wrong password; returns the scope whose lock this failure engaged, or null
+    public Scope failed(String email, String ip) {
+        if (!enabled) {
+            return null;
+        }
+        long now = System.nanoTime();
+        Scope engaged = null;
+        String emailKey = emailKey(email);
+        if (emailKey != null && failed(emailKey, emailPolicy, now)) {
+            emailLocks.increment();
+            engaged = Scope.EMAIL;
+        }
+        String ipKey = ipKey(ip);
+        if (ipKey != null && failed(ipKey, ipPolicy, now)) {
+            ipLocks.increment();
+            engaged = engaged == null ? Scope.IP : engaged;
+        }
+        return engaged;
+    }
+
+    // A correct password clears the email's history; the IP keeps counting so one valid account cannot
+    // launder failures against others
+    public void succeeded(String email) {
+        String key = emailKey(email);
+        if (!enabled || key == null) {
+            return;
+        }
+        Failures removed = failures.asMap().remove(key);
+        if (removed != null && removed.hasLocked()) {
+            writer.execute(() -> delete(key));
+        }
+    }
+
+    private boolean failed(String key, Policy policy, long now) {
+        Failures entry = failures.get(key, k -> new Failures(now));
+        long decay = policy.decay().toNanos();
+        long drainsAt = entry.drainsAt.accumulateAndGet(now, (stored, at) -> (stored - at < 0 ? at : stored) + decay);
+        if ((drainsAt - now + decay - 1) / decay < policy.maxFailures()) {
+            return false;
+        }
+        long lockedUntil;
+        int lockouts;
+        synchronized (entry) {
+            if (entry.lockedUntil - now > 0) {
+                return false;
+            }
+            lockouts = ++entry.lockouts;
+            lockedUntil = now + lockDuration(lockouts).toNanos();
+            entry.lockedUntil = lockedUntil;
+        }
+        long lockedUntilMillis = System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(lockedUntil - now);
+        writer.execute(() -> upsert(key, lockedUntilMillis, lockouts));
+        return true;
+    }
+
+    private long remaining(String key, long now) {
+        Failures entry = key == null ? null : failures.getIfPresent(key);
+        return entry == null ? 0 : entry.lockedUntil - now;
+    }
+
+    // initial, initial * multiplier, initial * multiplier^2 ... capped at max-duration
+    Duration lockDuration(int lockouts) {
+        double millis = initialDuration.toMillis() * Math.pow(multiplier, lockouts - 1);
+        return millis >= maxDuration.toMillis() ? maxDuration : Duration.ofMillis((long) millis);
+    }
+
+    private void upsert(String key, long lockedUntil, int lockouts) {
+        try {
+            int updated = jdbcTemplate.update(
+                    "UPDATE tbl_login_lockout SET locked_until = ?, lockouts = ? WHERE lock_key = ?",
+                    lockedUntil, lockouts, key);
+            if (updated == 0) {
+                try {
+                    jdbcTemplate.update(
+                            "INSERT INTO tbl_login_lockout (lock_key, locked_until, lockouts) VALUES (?, ?, ?)",
+                            key, lockedUntil, lockouts);
+                } catch (DuplicateKeyException ex) {
+                    // Another node inserted first; the latest lock wins
+                    jdbcTemplate.update(
+                            "UPDATE tbl_login_lockout SET locked_until = ?, lockouts = ? WHERE lock_key = ?",
+                            lockedUntil, lockouts, key);
+                }
+            }
+        } catch (DataAccessException ex) {
+            // The in-memory lock still holds; only a restart during the outage would forget it
+            log.warn("Could not persist login lockout: {}", ex.getMessage());
+        }
+    }
+
+    private void delete(String key) {
+        try {
+            jdbcTemplate.update("DELETE FROM tbl_login_lockout WHERE lock_key = ?", key);
+        } catch (DataAccessException ex) {
+            log.warn("Could not clear login lockout: {}", ex.getMessage());
+        }
+    }
+
+    // Waits until every write queued so far has been applied
+    void awaitWrites() throws Exception {
+        writer.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private static String emailKey(String email) {
+        return email == null || email.isBlank() ? null : "email:" + email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String ipKey(String ip) {
+        return ip == null ? null : "ip:" + ip;
+    }
+
+    private static Counter lockCounter(MeterRegistry meterRegistry, Scope scope) {
+        return Counter.builder("auth.lockout.engaged")
+                .tag("scope", scope.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+
+    private static final class Failures {
+        // System.nanoTime at which the failure count decays to zero
+        final AtomicLong drainsAt;
+        // Guarded by this
+        int lockouts;
+        volatile long lockedUntil;
+
+        Failures(long now) {
+            this.drainsAt = new AtomicLong(now);
+            this.lockedUntil = now;
+        }
+
+        synchronized boolean hasLocked() {
+            return lockouts > 0;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package amol.com.authmatrixbackend.security;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+// Builds the configured hashing algorithm and picks a cost that hits a latency target on this hardware
+public final class PasswordEncoders {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+    public static final String PBKDF2 = "pbkdf2";
+
+    private static final int DEFAULT_BCRYPT_COST = 10;
+    private static final int MAX_BCRYPT_COST = 16;
+    private static final int DEFAULT_ARGON2_ITERATIONS = 3;
+    private static final int ARGON2_MEMORY_KIB = 1 << 14;
+    private static final int DEFAULT_PBKDF2_ITERATIONS = 310_000;
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private PasswordEncoders() {
+    }
+
+    // Hashes with the chosen algorithm and cost; older ids, other costs (and legacy hashes without an id) still match,
+    // and upgradeEncoding() reports them so they can be re-hashed on the next successful login
+    public static PasswordEncoder delegating(String algorithm, int cost) {
+        return new CostAwarePasswordEncoder(algorithm, cost);
+    }
+
+    public static PasswordEncoder create(String algorithm, int cost) {
+        return switch (algorithm) {
+            case BCRYPT -> new BCryptPasswordEncoder(cost);
+            case ARGON2 -> argon2(cost);
+            case PBKDF2 -> pbkdf2(cost);
+            default -> throw new IllegalArgumentException("Unsupported password algorithm: " + algorithm);
+        };
+    }
+
+    public static int defaultCost(String algorithm) {
+        return switch (algorithm) {
+            case BCRYPT -> DEFAULT_BCRYPT_COST;
+            case ARGON2 -> DEFAULT_ARGON2_ITERATIONS;
+            case PBKDF2 -> DEFAULT_PBKDF2_ITERATIONS;
+            default -> throw new IllegalArgumentException("Unsupported password algorithm: " + algorithm);
+        };
+    }
+
+    // BCrypt: highest log-rounds that stays within the target. Argon2/PBKDF2: iterations scaled linearly from one sample.
+    public static int calibrate(String algorithm, Duration targetLatency) {
+        long targetNanos = targetLatency.toNanos();
+        if (BCRYPT.equals(algorithm)) {
+            int cost = DEFAULT_BCRYPT_COST;
+            while (cost < MAX_BCRYPT_COST && measure(new BCryptPasswordEncoder(cost + 1)) <= targetNanos) {
+                cost++;
+            }
+            return cost;
+        }
+        int baseCost = defaultCost(algorithm);
+        long sample = Math.max(1L, measure(create(algorithm, baseCost)));
+        long scaled = baseCost * targetNanos / sample;
+        return (int) Math.max(baseCost, Math.min(Integer.MAX_VALUE, scaled));
+    }
+
+    private static long measure(PasswordEncoder encoder) {
+        encoder.encode(CALIBRATION_PASSWORD); // warm-up
+        long start = System.nanoTime();
+        encoder.encode(CALIBRATION_PASSWORD);
+        return System.nanoTime() - start;
+    }
+
+    // BCrypt and Argon2 record their cost in the hash. PBKDF2 does not, so its hashes are stored as
+    // {pbkdf2-<iterations>}; a bare {pbkdf2} predates that and was made at the default count.
+    private static final class CostAwarePasswordEncoder implements PasswordEncoder {
+
+        private static final String PBKDF2_ID_PREFIX = "{" + PBKDF2 + "-";
+        private static final Pattern ARGON2_ITERATIONS = Pattern.compile("[$,]t=(\\d+)[$,]");
+
+        private final String algorithm;
+        private final int cost;
+        private final String id;
+        private final PasswordEncoder current;
+        private final DelegatingPasswordEncoder legacy;
+        private final Map<Integer, PasswordEncoder> pbkdf2ByIterations = new ConcurrentHashMap<>();
+
+        CostAwarePasswordEncoder(String algorithm, int cost) {
+            this.algorithm = algorithm;
+            this.cost = cost;
+            this.id = PBKDF2.equals(algorithm) ? PBKDF2 + "-" + cost : algorithm;
+            this.current = create(algorithm, cost);
+            this.legacy = new DelegatingPasswordEncoder(BCRYPT, Map.of(
+                    BCRYPT, new BCryptPasswordEncoder(DEFAULT_BCRYPT_COST),
+                    ARGON2, argon2(DEFAULT_ARGON2_ITERATIONS),
+                    PBKDF2, pbkdf2(DEFAULT_PBKDF2_ITERATIONS)));
+            this.legacy.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(DEFAULT_BCRYPT_COST));
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "{" + id + "}" + current.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if (encodedPassword != null && encodedPassword.startsWith(PBKDF2_ID_PREFIX)) {
+                int end = encodedPassword.indexOf('}');
+                Integer iterations = parseIterations(encodedPassword, end);
+                return iterations != null && pbkdf2ByIterations.computeIfAbsent(iterations, PasswordEncoders::pbkdf2)
+                        .matches(rawPassword, encodedPassword.substring(end + 1));
+            }
+            return legacy.matches(rawPassword, encodedPassword);
+        }
+
+        // Anything not made by this encoder's algorithm at this encoder's cost, including hashes without an id
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            if (encodedPassword == null || !encodedPassword.startsWith("{")) {
+                return true;
+            }
+            if (encodedPassword.startsWith(PBKDF2_ID_PREFIX)) {
+                Integer iterations = parseIterations(encodedPassword, encodedPassword.indexOf('}'));
+                return !PBKDF2.equals(algorithm) || iterations == null || iterations != cost;
+            }
+            String storedId = encodedPassword.substring(1, Math.max(1, encodedPassword.indexOf('}')));
+            if (!storedId.equals(algorithm)) {
+                return true;
+            }
+            String hash = encodedPassword.substring(storedId.length() + 2);
+            return switch (algorithm) {
+                case BCRYPT -> hash.length() < 7 || !hash.substring(4, 6).equals(String.format("%02d", cost));
+                case ARGON2 -> {
+                    Matcher matcher = ARGON2_ITERATIONS.matcher(hash);
+                    yield !matcher.find() || Integer.parseInt(matcher.group(1)) != cost;
+                }
+                default -> cost != DEFAULT_PBKDF2_ITERATIONS; // bare {pbkdf2}
+            };
+        }
+
+        private static Integer parseIterations(String encodedPassword, int end) {
+            try {
+                return end < 0 ? null : Integer.valueOf(encodedPassword.substring(PBKDF2_ID_PREFIX.length(), end));
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+    }
+
+    private static PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(16, 32, 1, ARGON2_MEMORY_KIB, iterations);
+    }
+
+    private static PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", 16, iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+}
@@ -0,0 +1,25 @@
+package amol.com.authmatrixbackend.security;
+
+import java.time.Duration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// Raised when the hashing queue is full; resolved to 503 with a Retry-After header
+public class PasswordHashingBusyException extends ResponseStatusException {
+
+    private final Duration retryAfter;
+
+    public PasswordHashingBusyException(Duration retryAfter) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, please retry shortly");
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1L, retryAfter.toSeconds())));
+        return headers;
+    }
+}
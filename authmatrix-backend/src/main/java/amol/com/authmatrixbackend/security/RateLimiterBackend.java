@@ -0,0 +1,25 @@
+package amol.com.authmatrixbackend.security;
+
+import java.time.Duration;
+
+// Storage for rate-limit buckets; swap the implementation to share limits across nodes
+public interface RateLimiterBackend {
+
+    // A bucket holding up to capacity tokens, refilled at capacity tokens per refillPeriod. Checked when the
+    // limits are built at startup, so a bad property fails the boot instead of every throttled request
+    record Limit(long capacity, Duration refillPeriod) {
+
+        public Limit {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Rate limit capacity must be positive, got " + capacity);
+            }
+            if (refillPeriod == null || refillPeriod.toNanos() < capacity) {
+                throw new IllegalArgumentException(
+                        "Rate limit refill period " + refillPeriod + " is too short for capacity " + capacity);
+            }
+        }
+    }
+
+    // Takes one token; returns Duration.ZERO when allowed, otherwise how long until a token is available
+    Duration tryAcquire(String key, Limit limit);
+}
@@ -0,0 +1,18 @@
+package amol.com.authmatrixbackend.security;
+
+import java.util.function.Consumer;
+
+// Carries revocations between nodes; implementations must deliver every event to all subscribed nodes
+public interface RevocationChannel {
+
+    enum Type { TOKEN, USER }
+
+    // TOKEN: key is the jti and timestamp its expiry (epoch millis).
+    // USER: key is the email and timestamp the watermark (epoch seconds); earlier tokens are invalid.
+    record RevocationEvent(String originNodeId, Type type, String key, long timestamp) {
+    }
+
+    void publish(RevocationEvent event);
+
+    void subscribe(Consumer<RevocationEvent> listener);
+}
@@ -0,0 +1,277 @@
+package amol.com.authmatrixbackend.security;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// ES256 keyring backed by a SigningKeyStore shared by all nodes, so a token signed on one node verifies on every
+// other and survives restarts. One key signs; the next key is written to the store with its activation time well
+// ahead of use, so every node and downstream JWKS cache knows it before the first token carries its kid, and
+// retired keys stay published for the overlap window. Each node re-reads the store on every rotation check;
+// whichever node finds no next key schedules one, and the store's unique activation time settles races.
+// Readers see an immutable snapshot, so signing and kid lookups never lock.
+@Component
+public class SigningKeyRing {
+
+    public static final String ALGORITHM = "ES256";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final SecureRandom RANDOM = new SecureRandom();
+    // An unknown kid re-reads the store at most this often, so garbage kids cannot hammer the database
+    private static final Duration RELOAD_ON_MISS_INTERVAL = Duration.ofSeconds(10);
+
+    public record SigningKey(String kid, KeyPair keyPair, Instant activatedAt, Instant retiresAt) {
+    }
+
+    public record Jwks(String json, String etag) {
+    }
+
+    private record State(SigningKey current, Map<String, PublicKey> publicKeys, Jwks jwks, Instant loadedAt) {
+    }
+
+    private final SigningKeyStore store;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Duration rotationInterval;
+    private final Duration overlap;
+    // Not synchronized: the refresh runs JDBC and may be called from a virtual thread, which a monitor would pin
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile State state;
+
+    @Autowired
+    public SigningKeyRing(SigningKeyStore store,
+                          @Value("${jwt.signing.algorithm:HS256}") String algorithm,
+                          @Value("${jwt.signing.rotation-interval:P30D}") Duration rotationInterval,
+                          @Value("${jwt.signing.overlap:P1D}") Duration overlap) {
+        this(store, Clock.systemUTC(), ALGORITHM.equals(algorithm), rotationInterval, overlap);
+    }
+
+    public SigningKeyRing(SigningKeyStore store, Clock clock, Duration rotationInterval, Duration overlap) {
+        this(store, clock, true, rotationInterval, overlap);
+    }
+
+    private SigningKeyRing(SigningKeyStore store, Clock clock, boolean enabled, Duration rotationInterval,
+                           Duration overlap) {
+        this.store = store;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.rotationInterval = rotationInterval;
+        this.overlap = overlap;
+    }
+
+    public SigningKey current() {
+        return state().current();
+    }
+
+    // Public key for a kid that is current, pre-published or still inside its overlap window; null otherwise
+    public PublicKey find(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        State snapshot = state();
+        PublicKey key = snapshot.publicKeys().get(kid);
+        // Only two nodes creating the very first key at once can sign with a kid the others have not read yet.
+        // One caller reloads; concurrent misses (e.g. a burst of forged kids) answer from the current snapshot
+        if (key == null && reloadDue(snapshot) && refreshLock.tryLock()) {
+            try {
+                if (reloadDue(state)) {
+                    reload();
+                }
+            } finally {
+                refreshLock.unlock();
+            }
+            key = state.publicKeys().get(kid);
+        }
+        return key;
+    }
+
+    private boolean reloadDue(State snapshot) {
+        return !clock.instant().isBefore(snapshot.loadedAt().plus(RELOAD_ON_MISS_INTERVAL));
+    }
+
+    public Jwks jwks() {
+        return state().jwks();
+    }
+
+    // Loaded on first use rather than at construction: the store's table is created with the JPA schema
+    private State state() {
+        State snapshot = state;
+        if (snapshot == null) {
+            refreshLock.lock();
+            try {
+                if (state == null) {
+                    reload();
+                }
+            } finally {
+                refreshLock.unlock();
+            }
+            snapshot = state;
+        }
+        return snapshot;
+    }
+
+    // Re-reads the store, creating the first key or scheduling the next rotation when none exists yet
+    @Scheduled(fixedDelayString = "${jwt.signing.rotation-check:PT1M}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            reload();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // Callers hold refreshLock
+    private void reload() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = clock.instant();
+        List<SigningKeyStore.StoredKey> keys = store.findAll();
+        SigningKeyStore.StoredKey current = current(keys, now);
+        if (current == null) {
+            store.insert(newKey(now));
+            keys = store.findAll();
+            current = current(keys, now);
+        }
+        if (keys.getLast().activatesAt() <= now.toEpochMilli()) {
+            // Lost races are fine: the other node's key is read back below
+            Instant due = Instant.ofEpochMilli(current.activatesAt()).plus(rotationInterval);
+            Instant earliest = now.plus(overlap);
+            store.insert(newKey(due.isBefore(earliest) ? earliest : due));
+            keys = store.findAll();
+        }
+        state = snapshot(keys, now);
+    }
+
+    private static SigningKeyStore.StoredKey current(List<SigningKeyStore.StoredKey> keys, Instant now) {
+        SigningKeyStore.StoredKey current = null;
+        for (SigningKeyStore.StoredKey key : keys) {
+            if (key.activatesAt() <= now.toEpochMilli()) {
+                current = key;
+            }
+        }
+        return current;
+    }
+
+    // A key retires once its successor has signed for the overlap window; retired keys are deleted from the store
+    private State snapshot(List<SigningKeyStore.StoredKey> keys, Instant now) {
+        SigningKeyStore.StoredKey active = current(keys, now);
+        SigningKey current = null;
+        List<SigningKey> published = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            SigningKeyStore.StoredKey key = keys.get(i);
+            Instant activatesAt = Instant.ofEpochMilli(key.activatesAt());
+            if (key == active) {
+                current = decode(key, null);
+                published.add(current);
+            } else if (activatesAt.isAfter(now)) {
+                published.add(decode(key, null));
+            } else {
+                Instant retiresAt = Instant.ofEpochMilli(keys.get(i + 1).activatesAt()).plus(overlap);
+                if (now.isBefore(retiresAt)) {
+                    published.add(decode(key, retiresAt));
+                } else {
+                    store.delete(key.kid());
+                }
+            }
+        }
+        Map<String, PublicKey> publicKeys = new HashMap<>();
+        published.forEach(key -> publicKeys.put(key.kid(), key.keyPair().getPublic()));
+        return new State(current, Map.copyOf(publicKeys), render(published), now);
+    }
+
+    private static SigningKey decode(SigningKeyStore.StoredKey key, Instant retiresAt) {
+        try {
+            KeyFactory factory = KeyFactory.getInstance("EC");
+            KeyPair keyPair = new KeyPair(
+                    factory.generatePublic(new X509EncodedKeySpec(key.publicKey())),
+                    factory.generatePrivate(new PKCS8EncodedKeySpec(key.privateKey())));
+            return new SigningKey(key.kid(), keyPair, Instant.ofEpochMilli(key.activatesAt()), retiresAt);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not decode signing key " + key.kid(), e);
+        }
+    }
+
+    private static SigningKeyStore.StoredKey newKey(Instant activatesAt) {
+        KeyPair keyPair = generate();
+        return new SigningKeyStore.StoredKey(newKid(), keyPair.getPrivate().getEncoded(),
+                keyPair.getPublic().getEncoded(), activatesAt.toEpochMilli());
+    }
+
+    private static Jwks render(List<SigningKey> keys) {
+        List<Map<String, String>> jwks = keys.stream().map(SigningKeyRing::toJwk).toList();
+        try {
+            String json = MAPPER.writeValueAsString(Map.of("keys", jwks));
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+            return new Jwks(json, Base64.getUrlEncoder().withoutPadding().encodeToString(digest));
+        } catch (JsonProcessingException | GeneralSecurityException e) {
+            throw new IllegalStateException("Could not render JWKS", e);
+        }
+    }
+
+    private static Map<String, String> toJwk(SigningKey key) {
+        ECPublicKey publicKey = (ECPublicKey) key.keyPair().getPublic();
+        Map<String, String> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("kid", key.kid());
+        jwk.put("use", "sig");
+        jwk.put("alg", ALGORITHM);
+        jwk.put("x", coordinate(publicKey.getW().getAffineX()));
+        jwk.put("y", coordinate(publicKey.getW().getAffineY()));
+        return jwk;
+    }
+
+    // JWK coordinates are unsigned, big-endian and exactly 32 bytes for P-256
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    private static KeyPair generate() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not generate signing key", e);
+        }
+    }
+
+    private static String newKid() {
+        byte[] bytes = new byte[12];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,19 @@
+package amol.com.authmatrixbackend.security;
+
+import java.util.List;
+
+// Storage for the ES256 keyring; every node reading the same store signs with the same key and publishes the same JWKS
+public interface SigningKeyStore {
+
+    // privateKey is PKCS#8 and publicKey X.509 encoded; the key signs from activatesAt (epoch millis) on
+    record StoredKey(String kid, byte[] privateKey, byte[] publicKey, long activatesAt) {
+    }
+
+    // Ordered by activatesAt
+    List<StoredKey> findAll();
+
+    // Returns false when a key with the same activatesAt exists, i.e. another node scheduled that rotation first
+    boolean insert(StoredKey key);
+
+    void delete(String kid);
+}
@@ -0,0 +1,43 @@
+package amol.com.authmatrixbackend.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import amol.com.authmatrixbackend.util.VerifiedToken;
+
+// Principal built straight from verified claims, used when jwt.principal-source=token. The claims are a snapshot
+// taken when the token was issued; /verify-otp re-issues the access token so accountVerified does not lag
+public record TokenPrincipal(String userId,
+                             String email,
+                             boolean accountVerified,
+                             List<GrantedAuthority> authorities) implements UserDetails {
+
+    public static TokenPrincipal from(VerifiedToken token) {
+        List<GrantedAuthority> authorities = token.authorities() == null
+                ? List.of()
+                : token.authorities().stream()
+                        .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                        .toList();
+        return new TokenPrincipal(token.userId(), token.subject(),
+                Boolean.TRUE.equals(token.accountVerified()), authorities);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
@@ -0,0 +1,112 @@
+package amol.com.authmatrixbackend.security;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import amol.com.authmatrixbackend.util.BloomFilter;
+import amol.com.authmatrixbackend.util.VerifiedToken;
+
+// Denylist of revoked tokens (by jti) plus per-user "issued before" watermarks.
+// A Bloom filter sits in front of the exact set, so the common not-revoked case is a few bit reads.
+@Service
+public class TokenRevocationService {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final RevocationChannel channel;
+    private final int expectedRevocations;
+    private final Duration maxTokenLifetime;
+
+    // jti -> token expiry (epoch millis); entries are pruned once the token would have expired anyway
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // email -> epoch seconds; tokens issued strictly before are invalid
+    private final Map<String, Long> userWatermarks = new ConcurrentHashMap<>();
+    private volatile BloomFilter revokedFilter;
+
+    public TokenRevocationService(RevocationChannel channel,
+                                  @Value("${jwt.revocation.expected-entries:100000}") int expectedRevocations,
+                                  @Value("${jwt.revocation.max-token-lifetime:${jwt.access-token.ttl:PT10H}}") Duration maxTokenLifetime) {
+        this.channel = channel;
+        this.expectedRevocations = expectedRevocations;
+        this.maxTokenLifetime = maxTokenLifetime;
+        this.revokedFilter = newFilter();
+        channel.subscribe(this::onEvent);
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        if (!userWatermarks.isEmpty() && token.subject() != null && token.issuedAt() != null) {
+            Long watermark = userWatermarks.get(token.subject());
+            if (watermark != null && token.issuedAt().getTime() / 1000 < watermark) {
+                return true;
+            }
+        }
+        String tokenId = token.tokenId();
+        return tokenId != null && revokedFilter.mightContain(tokenId) && revokedTokens.containsKey(tokenId);
+    }
+
+    public void revoke(VerifiedToken token) {
+        if (token.tokenId() == null) {
+            // Tokens minted before jti was added can only be revoked through the user watermark
+            return;
+        }
+        long expiresAt = token.expiration() != null
+                ? token.expiration().getTime()
+                : System.currentTimeMillis() + maxTokenLifetime.toMillis();
+        applyTokenRevocation(token.tokenId(), expiresAt);
+        channel.publish(new RevocationChannel.RevocationEvent(nodeId, RevocationChannel.Type.TOKEN, token.tokenId(), expiresAt));
+    }
+
+    // Invalidates every token the user holds, e.g. after a password reset
+    public void revokeAllForUser(String email) {
+        long watermark = System.currentTimeMillis() / 1000;
+        applyUserWatermark(email, watermark);
+        channel.publish(new RevocationChannel.RevocationEvent(nodeId, RevocationChannel.Type.USER, email, watermark));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.prune-interval:PT5M}")
+    public void prune() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+        long oldestLiveIssuedAt = (now - maxTokenLifetime.toMillis()) / 1000;
+        userWatermarks.values().removeIf(watermark -> watermark < oldestLiveIssuedAt);
+
+        // Bloom filters cannot delete, so rebuild from the surviving entries; add before swap so no jti is missed
+        BloomFilter rebuilt = newFilter();
+        revokedTokens.keySet().forEach(rebuilt::put);
+        revokedFilter = rebuilt;
+        revokedTokens.keySet().forEach(rebuilt::put);
+    }
+
+    public int revokedTokenCount() {
+        return revokedTokens.size();
+    }
+
+    private void onEvent(RevocationChannel.RevocationEvent event) {
+        if (nodeId.equals(event.originNodeId())) {
+            return;
+        }
+        if (event.type() == RevocationChannel.Type.TOKEN) {
+            applyTokenRevocation(event.key(), event.timestamp());
+        } else {
+            applyUserWatermark(event.key(), event.timestamp());
+        }
+    }
+
+    private void applyTokenRevocation(String tokenId, long expiresAt) {
+        revokedTokens.put(tokenId, expiresAt);
+        revokedFilter.put(tokenId);
+    }
+
+    private void applyUserWatermark(String email, long watermark) {
+        userWatermarks.merge(email, watermark, Math::max);
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(expectedRevocations, 0.01);
+    }
+}
@@ -1,28 +1,97 @@
 package amol.com.authmatrixbackend.service;
 
+import amol.com.authmatrixbackend.repository.UserCredentials;
 import amol.com.authmatrixbackend.repository.UserRepository;
 import amol.com.authmatrixbackend.entity.UserEntity;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
-@RequiredArgsConstructor
-public class AppUserDetailsService implements UserDetailsService {
+public class AppUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
+    // Read-through cache for per-request lookups (jwt.principal-source=database); evicted on password or profile changes.
+    // Async so the JDBC load runs outside the map's bin lock: a blocking load inside a monitor would pin virtual threads.
+    private final AsyncCache<String, UserDetails> userDetailsCache;
+
+    public AppUserDetailsService(UserRepository userRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${auth.user-cache.ttl:PT5M}") Duration ttl,
+                                 @Value("${auth.user-cache.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.userDetailsCache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, userDetailsCache, "auth.user-details");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        UserEntity existingUser = userRepository.findByEmail(email)
+        UserCredentials credentials = userRepository.findCredentialsByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        return new User(existingUser.getEmail(), existingUser.getPassword(), new ArrayList<>());
+        return new User(credentials.email(), credentials.password(), getAuthorities(credentials.email()));
+    }
+
+    // Only for request authentication in JwtRequestFilter: the cached instances are shared between requests, so
+    // nothing may mutate them (e.g. erase their credentials)
+    public UserDetails loadCachedUserByUsername(String email) throws UsernameNotFoundException {
+        CompletableFuture<UserDetails> loading = new CompletableFuture<>();
+        CompletableFuture<UserDetails> future = userDetailsCache.get(email, (key, executor) -> loading);
+        if (future == loading) {
+            // This caller won the race and loads on its own thread; concurrent callers wait on the future
+            try {
+                loading.complete(loadUserByUsername(email));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e); // failed futures are dropped from the cache
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (userRepository.updatePasswordIfUnchanged(user.getUsername(), user.getPassword(), newPassword) == 0) {
+            return user;
+        }
+        evictUser(user.getUsername());
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
+    public void evictUser(String email) {
+        userDetailsCache.synchronous().invalidate(email);
+    }
+
+    public List<GrantedAuthority> getAuthorities(String email) {
+        return new ArrayList<>();
     }
 
     public UserEntity getUserByEmail(String email) {
@@ -0,0 +1,242 @@
+package amol.com.authmatrixbackend.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import amol.com.authmatrixbackend.entity.EmailOutboxEntity;
+import amol.com.authmatrixbackend.repository.EmailOutboxRepository;
+import amol.com.authmatrixbackend.security.AuthMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Drains the email outbox in batches; each batch goes out over a single SMTP connection
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthMetrics authMetrics;
+
+    @Value("${spring.mail.properties.mail.smtp.from}")
+    private String fromEmail;
+
+    @Value("${mail.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mail.outbox.poll-interval:PT2S}")
+    private Duration pollInterval;
+
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.initial-backoff:PT10S}")
+    private Duration initialBackoff;
+
+    @Value("${mail.outbox.max-backoff:PT1H}")
+    private Duration maxBackoff;
+
+    // How long SENT and FAILED rows are kept before purgeFinished deletes them
+    @Value("${mail.outbox.retention:P7D}")
+    private Duration retention;
+
+    // How long claimed rows stay invisible to other dispatchers while they are being sent
+    @Value("${mail.outbox.claim-timeout:PT5M}")
+    private Duration claimTimeout;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 JavaMailSender mailSender,
+                                 PlatformTransactionManager transactionManager,
+                                 AuthMetrics authMetrics) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.authMetrics = authMetrics;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Jakarta Mail's SMTP transport blocks inside synchronized methods, which would pin a carrier thread if this ran
+    // on the virtual-thread @Scheduled executor; the dispatcher gets its own platform thread instead
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mail-outbox-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::scheduledDispatch,
+                pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    void scheduledDispatch() {
+        try {
+            dispatchPendingEmails();
+        } catch (RuntimeException ex) {
+            // An uncaught exception would cancel the fixed-delay schedule
+            log.error("Outbox dispatch failed", ex);
+        }
+    }
+
+    // Returns the number of emails delivered
+    public int dispatchPendingEmails() {
+        int delivered = 0;
+        List<EmailOutboxEntity> batch;
+        do {
+            batch = claimBatch();
+            if (!batch.isEmpty()) {
+                delivered += send(batch);
+            }
+        } while (batch.size() == batchSize);
+        return delivered;
+    }
+
+    private List<EmailOutboxEntity> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            long now = System.currentTimeMillis();
+            List<EmailOutboxEntity> due = emailOutboxRepository.findDueForUpdate(
+                    EmailOutboxEntity.Status.PENDING, now, PageRequest.of(0, batchSize));
+            for (EmailOutboxEntity email : due) {
+                email.setNextAttemptAt(now + claimTimeout.toMillis());
+            }
+            return due;
+        });
+    }
+
+    private int send(List<EmailOutboxEntity> batch) {
+        List<OutboxMessage> messages = batch.stream().map(this::toMessage).toList();
+
+        Map<Object, Exception> failures = new HashMap<>();
+        long start = System.nanoTime();
+        try {
+            mailSender.send(messages.toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException ex) {
+            failures.putAll(ex.getFailedMessages());
+            if (failures.isEmpty()) {
+                messages.forEach(message -> failures.put(message, ex));
+            }
+        } catch (MailException ex) {
+            messages.forEach(message -> failures.put(message, ex));
+        }
+
+        long elapsed = System.nanoTime() - start;
+        long now = System.currentTimeMillis();
+        int delivered = 0;
+        for (OutboxMessage message : messages) {
+            EmailOutboxEntity email = message.email;
+            Exception failure = failures.get(message);
+            if (failure == null) {
+                email.setStatus(EmailOutboxEntity.Status.SENT);
+                email.setSentAt(now);
+                email.setLastError(null);
+                // The body may hold an OTP; nothing needs it once delivered
+                email.setBody(null);
+                delivered++;
+            } else {
+                markFailedAttempt(email, failure, now);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.saveAll(batch));
+        authMetrics.emailBatch(elapsed, delivered, batch.size() - delivered);
+        return delivered;
+    }
+
+    private void markFailedAttempt(EmailOutboxEntity email, Exception failure, long now) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(truncate(failure.getMessage()));
+        if (attempts >= maxAttempts) {
+            email.setStatus(EmailOutboxEntity.Status.FAILED);
+            email.setBody(null);
+            log.warn("Giving up on outbox email {} after {} attempts: {}", email.getId(), attempts, failure.getMessage());
+        } else {
+            email.setNextAttemptAt(now + backoff(attempts).toMillis());
+            log.info("Outbox email {} failed (attempt {}), retrying later: {}", email.getId(), attempts, failure.getMessage());
+        }
+    }
+
+    // Exponential backoff: initial, 2x, 4x ... capped at max-backoff
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    // Finished rows are kept for a while for troubleshooting (without their bodies), then deleted
+    @Scheduled(fixedDelayString = "${mail.outbox.purge-interval:PT1H}")
+    public int purgeFinished() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - retention.toMillis());
+        return transactionTemplate.execute(status ->
+                emailOutboxRepository.deleteFinishedBefore(EmailOutboxEntity.Status.PENDING, cutoff));
+    }
+
+    private OutboxMessage toMessage(EmailOutboxEntity email) {
+        OutboxMessage message = new OutboxMessage(email);
+        message.setFrom(fromEmail);
+        message.setTo(email.getRecipient());
+        message.setSubject(email.getSubject());
+        message.setText(email.getBody());
+        return message;
+    }
+
+    // SimpleMailMessage equality is by value, so two identical emails in one batch would collapse into one entry of
+    // MailSendException.getFailedMessages(); each outbox row's message is only ever equal to itself
+    private static final class OutboxMessage extends SimpleMailMessage {
+
+        private final transient EmailOutboxEntity email;
+
+        OutboxMessage(EmailOutboxEntity email) {
+            this.email = email;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -1,46 +1,43 @@
 package amol.com.authmatrixbackend.service;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import amol.com.authmatrixbackend.entity.EmailOutboxEntity;
+import amol.com.authmatrixbackend.repository.EmailOutboxRepository;
 import lombok.RequiredArgsConstructor;
 
+// Emails are written to the outbox in the caller's transaction and delivered by EmailOutboxDispatcher
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-
-    @Value("${spring.mail.properties.mail.smtp.from}")
-    private String fromEmail;
+    private final EmailOutboxRepository emailOutboxRepository;
 
     public void sendWelcomeEmail(String toEmail, String name) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(fromEmail);
-        message.setTo(toEmail);
-        message.setSubject("Welcome to AuthMatrix");
-        message.setText("Hello " + name + ",\n\nWelcome to AuthMatrix!\n\nThanks for registering with us.\n\nBest regards,\nAuthMatrix Team");
-        mailSender.send(message);
+        enqueue(toEmail, "Welcome to AuthMatrix",
+                "Hello " + name + ",\n\nWelcome to AuthMatrix!\n\nThanks for registering with us.\n\nBest regards,\nAuthMatrix Team");
     }
 
     public void sendResetOtpEmail(String toEmail, String otp) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(fromEmail);
-        message.setTo(toEmail);
-        message.setSubject("Password Reset OTP");
-        message.setText("Your OTP for resetting password is: " + otp + "\n\nThis OTP is valid for 15 minutes.");
-        mailSender.send(message);
+        enqueue(toEmail, "Password Reset OTP",
+                "Your OTP for resetting password is: " + otp + "\n\nThis OTP is valid for 15 minutes.");
     }
 
     public void sendOtpEmail(String toEmail, String otp) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(fromEmail);
-        message.setTo(toEmail);
-        message.setSubject("Account Verification OTP");
-        message.setText("Your OTP is: " + otp + "\n\nThis OTP is valid for 24 hours.");
-        mailSender.send(message);
+        enqueue(toEmail, "Account Verification OTP",
+                "Your OTP is: " + otp + "\n\nThis OTP is valid for 24 hours.");
+    }
+
+    // Joins the caller's transaction, so the email is committed (or rolled back) together with the OTP update
+    private void enqueue(String toEmail, String subject, String text) {
+        emailOutboxRepository.save(EmailOutboxEntity.builder()
+                .recipient(toEmail)
+                .subject(subject)
+                .body(text)
+                .status(EmailOutboxEntity.Status.PENDING)
+                .attempts(0)
+                .nextAttemptAt(System.currentTimeMillis())
+                .build());
     }
 
 }
@@ -0,0 +1,77 @@
+package amol.com.authmatrixbackend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+
+// Single-node store; Caffeine's variable expiry runs on a hierarchical timer wheel, so expired codes are dropped in O(1)
+@Service
+@ConditionalOnProperty(name = "auth.otp.store", havingValue = "memory")
+public class InMemoryOtpStore implements OtpStore {
+
+    // Expired codes linger this long so a late attempt is reported as expired rather than invalid
+    private static final long EXPIRED_GRACE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private record Key(Purpose purpose, String email) {
+    }
+
+    private record Entry(String otp, long expireAt) {
+    }
+
+    private final Cache<Key, Entry> otps = Caffeine.newBuilder()
+            .expireAfter(new Expiry<Key, Entry>() {
+                @Override
+                public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                    return untilPurge(entry);
+                }
+
+                @Override
+                public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+                    return untilPurge(entry);
+                }
+
+                @Override
+                public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .scheduler(Scheduler.systemScheduler())
+            .build();
+
+    @Override
+    public void issue(Purpose purpose, String email, String otp, Duration ttl) {
+        otps.put(new Key(purpose, email), new Entry(otp, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    @Override
+    public Result verifyAndConsume(Purpose purpose, String email, String otp) {
+        Result[] result = { Result.INVALID };
+        otps.asMap().computeIfPresent(new Key(purpose, email), (key, entry) -> {
+            if (!matches(entry.otp(), otp)) {
+                return entry;
+            }
+            result[0] = entry.expireAt() < System.currentTimeMillis() ? Result.EXPIRED : Result.VALID;
+            return null;
+        });
+        return result[0];
+    }
+
+    private static boolean matches(String expected, String actual) {
+        return actual != null && MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8), actual.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long untilPurge(Entry entry) {
+        long millis = entry.expireAt() + EXPIRED_GRACE_MILLIS - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, millis));
+    }
+}
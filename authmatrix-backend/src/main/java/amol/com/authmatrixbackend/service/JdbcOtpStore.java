@@ -0,0 +1,76 @@
+package amol.com.authmatrixbackend.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+
+// Shared store for multi-node deployments; codes live in tbl_otp (see OtpEntity) and expired rows are purged in batches
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "auth.otp.store", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcOtpStore implements OtpStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${auth.otp.purge-batch-size:500}")
+    private int purgeBatchSize;
+
+    @Override
+    public void issue(Purpose purpose, String email, String otp, Duration ttl) {
+        long expireAt = System.currentTimeMillis() + ttl.toMillis();
+        int updated = jdbcTemplate.update(
+                "UPDATE tbl_otp SET code = ?, expire_at = ? WHERE email = ? AND purpose = ?",
+                otp, expireAt, email, purpose.name());
+        if (updated == 0) {
+            try {
+                jdbcTemplate.update(
+                        "INSERT INTO tbl_otp (email, purpose, code, expire_at) VALUES (?, ?, ?, ?)",
+                        email, purpose.name(), otp, expireAt);
+            } catch (DuplicateKeyException ex) {
+                // A concurrent issue inserted first; the latest code wins
+                jdbcTemplate.update(
+                        "UPDATE tbl_otp SET code = ?, expire_at = ? WHERE email = ? AND purpose = ?",
+                        otp, expireAt, email, purpose.name());
+            }
+        }
+    }
+
+    @Override
+    public Result verifyAndConsume(Purpose purpose, String email, String otp) {
+        // The conditional delete is the atomic check: only one caller can remove a given code
+        int consumed = jdbcTemplate.update(
+                "DELETE FROM tbl_otp WHERE email = ? AND purpose = ? AND code = ? AND expire_at >= ?",
+                email, purpose.name(), otp, System.currentTimeMillis());
+        if (consumed == 1) {
+            return Result.VALID;
+        }
+        List<Long> expired = jdbcTemplate.queryForList(
+                "SELECT expire_at FROM tbl_otp WHERE email = ? AND purpose = ? AND code = ?",
+                Long.class, email, purpose.name(), otp);
+        return expired.isEmpty() ? Result.INVALID : Result.EXPIRED;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.otp.purge-interval:PT5M}")
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis();
+        List<Object[]> batch;
+        do {
+            batch = jdbcTemplate.query(
+                    "SELECT email, purpose FROM tbl_otp WHERE expire_at < ? LIMIT ?",
+                    (rs, rowNum) -> new Object[] { rs.getString(1), rs.getString(2), cutoff },
+                    cutoff, purgeBatchSize);
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                        "DELETE FROM tbl_otp WHERE email = ? AND purpose = ? AND expire_at < ?", batch);
+            }
+        } while (batch.size() == purgeBatchSize);
+    }
+}
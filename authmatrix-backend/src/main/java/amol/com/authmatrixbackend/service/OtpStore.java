@@ -0,0 +1,17 @@
+package amol.com.authmatrixbackend.service;
+
+import java.time.Duration;
+
+// Short-lived one-time codes, kept apart from the user row
+public interface OtpStore {
+
+    enum Purpose { VERIFY, RESET }
+
+    enum Result { VALID, INVALID, EXPIRED }
+
+    // Replaces any outstanding code for the same email and purpose
+    void issue(Purpose purpose, String email, String otp, Duration ttl);
+
+    // Atomically checks the code and removes it on success, so a code can only be used once
+    Result verifyAndConsume(Purpose purpose, String email, String otp);
+}
@@ -4,15 +4,22 @@ import amol.com.authmatrixbackend.entity.UserEntity;
 import amol.com.authmatrixbackend.io.ProfileRequest;
 import amol.com.authmatrixbackend.io.ProfileResponse;
 import amol.com.authmatrixbackend.repository.UserRepository;
+import amol.com.authmatrixbackend.repository.UserSummary;
+import amol.com.authmatrixbackend.security.AuthMetrics;
+import amol.com.authmatrixbackend.security.TokenRevocationService;
+import java.time.Duration;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.server.ResponseStatusException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
 // Service implementation for profile creation logic
@@ -24,138 +31,148 @@ public class ProfileServiceImpl implements ProfileService{
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final AppUserDetailsService appUserDetailsService;
+    private final OtpStore otpStore;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final AuthMetrics authMetrics;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final Duration RESET_OTP_TTL = Duration.ofMinutes(15);
+    private static final Duration VERIFY_OTP_TTL = Duration.ofHours(24);
     
     @Override
     public ProfileResponse createProfile(ProfileRequest request) {
 
-        // Convert request to entity, save to DB, then convert to response
+        // Known duplicates are rejected before paying for the password hash
+        String email = request.getEmail();
+        if (registeredEmailFilter.mightBeRegistered(email) && userRepository.existsByEmail(email)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already exists");
+        }
+
+        // Hash outside the transaction so no pooled connection is held during BCrypt
         UserEntity newProfile = convertToUserEntity(request);
 
-        if(!userRepository.existsByEmail(newProfile.getEmail())) {
-            newProfile = userRepository.save(newProfile);
-            return convertToProfileResponse(newProfile);
+        // The unique index on email decides concurrent registrations; the welcome email commits with the user
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAndFlush(newProfile);
+                emailService.sendWelcomeEmail(newProfile.getEmail(), newProfile.getName());
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Only a committed row with this email makes it a duplicate; other violations (a column too long,
+            // a failed outbox insert) are real faults and must not be reported as one
+            if (!userRepository.existsByEmail(email)) {
+                throw ex;
+            }
+            registeredEmailFilter.registered(email);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already exists");
         }
-        
-        throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already exists");
-        
+        registeredEmailFilter.registered(email);
+        return convertToProfileResponse(UserSummary.of(newProfile));
     }
+
     @Override
     public ProfileResponse getProfile(String email) {
         
-        UserEntity existingUser = userRepository.findByEmail(email)
+        UserSummary existingUser = userRepository.findSummaryByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Profile not found: " + email));
 
-        return convertToProfileResponse(existingUser);        
+        return convertToProfileResponse(existingUser);
     }
 
     @Override
+    @Transactional
     public void sendResetOtp(String email) {
         
-        UserEntity existingEntity =  userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        if (!userRepository.existsByEmail(email)) {
+            throw new UsernameNotFoundException("User not found with email: " + email);
+        }
 
-        // Generating 6 digit OTP and set expiration time  
+        // Generating 6 digit OTP, valid for 15 minutes
         String otp = String.valueOf(ThreadLocalRandom.current().nextInt(100000, 1000000));
+        otpStore.issue(OtpStore.Purpose.RESET, email, otp, RESET_OTP_TTL);
+        authMetrics.otpIssued(OtpStore.Purpose.RESET);
 
-        //Expires in (current time + 15 minutes in milliseconds)
-        long expiryTime = System.currentTimeMillis() + (15 * 60 * 1000); 
-
-        //Updating the user/profile
-        existingEntity.setResetOtp(otp);
-        existingEntity.setResetOtpExpireAt(expiryTime);
-
-        //Saving into the database
-        userRepository.save(existingEntity);
-
-        try {
-            //Sending the reset OTP email
-           emailService.sendResetOtpEmail(existingEntity.getEmail(), otp); 
-        
-        } catch (Exception ex) {
-            throw new RuntimeException("Unable to send reset OTP email");
-        }
+        //Queue the reset OTP email in the same transaction
+        emailService.sendResetOtpEmail(email, otp);
     }
 
     @Override
     public void resetPassword(String email, String otp, String newPassword) {
 
-        UserEntity existingUser = userRepository.findByEmail(email)
-            .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        // Hash outside the transaction so no pooled connection is held during BCrypt, and before the OTP is
+        // consumed so a saturated hashing pool (503) does not burn the code
+        String encodedPassword = passwordEncoder.encode(newPassword);
 
-            if (existingUser.getResetOtp() == null || !existingUser.getResetOtp().equals(otp)) {
-                throw new RuntimeException("Invalid OTP");
-            }
+        // The code is consumed in the same transaction as the password write; if the write fails it stays usable
+        transactionTemplate.executeWithoutResult(status -> {
+            checkOtp(OtpStore.Purpose.RESET, otpStore.verifyAndConsume(OtpStore.Purpose.RESET, email, otp));
 
-            if (existingUser.getResetOtpExpireAt() < System.currentTimeMillis()) {
-                throw new RuntimeException("OTP has expired");
-            }
+            UserEntity existingUser = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-            existingUser.setPassword(passwordEncoder.encode(newPassword));
-            existingUser.setResetOtp(null); 
-            existingUser.setResetOtpExpireAt(0L); // Reset OTP and expiration time
+            existingUser.setPassword(encodedPassword);
             userRepository.save(existingUser);
+            refreshTokenService.revokeAllForUser(email);
+        });
+        appUserDetailsService.evictUser(email);
+        // Tokens issued with the old password stop working immediately
+        tokenRevocationService.revokeAllForUser(email);
     }
 
     @Override
+    @Transactional
     public void sendOtp(String email) {
 
-        UserEntity existingUser = userRepository.findByEmail(email)
+        UserSummary existingUser = userRepository.findSummaryByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        if (existingUser.getIsAccountVerified() != null && existingUser.getIsAccountVerified()) {
+        if (existingUser.isAccountVerified() != null && existingUser.isAccountVerified()) {
             return;
         }
 
-        //Generating 6 digit OTP
-
+        //Generating 6 digit OTP, valid for 24 hours
         String otp = String.valueOf(ThreadLocalRandom.current().nextInt(100000, 1000000));
+        otpStore.issue(OtpStore.Purpose.VERIFY, email, otp, VERIFY_OTP_TTL);
+        authMetrics.otpIssued(OtpStore.Purpose.VERIFY);
 
-        //Expires in (current time + 24 hours in milliseconds)
-        long expiryTime = System.currentTimeMillis() + (24 * 60 * 60 * 1000);
-        
-        //Updating the user/profile
-        existingUser.setVerifyOtp(otp);     
-        existingUser.setVerifyOtpExpireAt(expiryTime);
-
-        //Saving into the database
-        userRepository.save(existingUser);
-
-        try {
-            emailService.sendOtpEmail(existingUser.getEmail(), otp);
-        } catch (Exception e) {
-            
-            throw new RuntimeException("Unable to send email"); 
-        }
+        //Queue the OTP email in the same transaction
+        emailService.sendOtpEmail(existingUser.email(), otp);
     }
 
     @Override
+    @Transactional
     public void verifyOtp(String email, String otp) {
 
+        checkOtp(OtpStore.Purpose.VERIFY, otpStore.verifyAndConsume(OtpStore.Purpose.VERIFY, email, otp));
+
         UserEntity existingUser = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        if (existingUser.getVerifyOtp() == null || !existingUser.getVerifyOtp().equals(otp)) {
-            throw new RuntimeException("Invalid OTP");
-        }
-
-        if (existingUser.getVerifyOtpExpireAt() < System.currentTimeMillis()) {
-            throw new RuntimeException("OTP has expired");
-        }
-
         existingUser.setIsAccountVerified(true);
-        existingUser.setVerifyOtp(null); 
-        existingUser.setVerifyOtpExpireAt(0L); 
         userRepository.save(existingUser);
+        appUserDetailsService.evictUser(email);
     }
 
+    private void checkOtp(OtpStore.Purpose purpose, OtpStore.Result result) {
+        authMetrics.otpVerified(purpose, result);
+        if (result == OtpStore.Result.EXPIRED) {
+            throw new RuntimeException("OTP has expired");
+        }
+        if (result != OtpStore.Result.VALID) {
+            throw new RuntimeException("Invalid OTP");
+        }
+    }
     
-    // Converts UserEntity to ProfileResponse DTO
-    private ProfileResponse convertToProfileResponse(UserEntity newProfile) {
+    // Converts the user read model to ProfileResponse DTO
+    private ProfileResponse convertToProfileResponse(UserSummary user) {
         return ProfileResponse.builder()
-                .name(newProfile.getName())
-                .email(newProfile.getEmail())
-                .userId(newProfile.getUserId())
-                .isAccountVerified(newProfile.getIsAccountVerified())
+                .name(user.name())
+                .email(user.email())
+                .userId(user.userId())
+                .isAccountVerified(user.isAccountVerified())
                 .build();
 
     }
@@ -168,10 +185,6 @@ public class ProfileServiceImpl implements ProfileService{
                 .name(request.getName())
                 .password(passwordEncoder.encode(request.getPassword()))
                 .isAccountVerified(false)
-                .resetOtpExpireAt(0L)
-                .verifyOtp(null)
-                .verifyOtpExpireAt(0L)
-                .resetOtp(null)
                 .build();
     }
 }
@@ -0,0 +1,162 @@
+package amol.com.authmatrixbackend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import amol.com.authmatrixbackend.entity.RefreshTokenEntity;
+import amol.com.authmatrixbackend.repository.RefreshTokenRepository;
+import amol.com.authmatrixbackend.security.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+
+// Opaque, single-use refresh tokens. Each refresh rotates the token within its family; presenting an
+// already-used token is treated as theft and kills the whole family plus the user's access tokens. The one
+// exception is the reuse grace window: two tabs refreshing at once present the same token, so reusing the
+// immediately previous token shortly after its rotation returns the still-unused successor instead.
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    public record IssuedRefreshToken(String token, String familyId, String email, Duration maxAge) {
+    }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    // Idle timeout: each refresh slides the session forward by this much
+    @Value("${jwt.refresh-token.ttl:P7D}")
+    private Duration refreshTokenTtl;
+
+    // Absolute session lifetime, regardless of activity
+    @Value("${jwt.refresh-token.max-session:P30D}")
+    private Duration maxSession;
+
+    // How long after a rotation the previous token still yields its successor rather than counting as theft
+    @Value("${jwt.refresh-token.reuse-grace:PT5S}")
+    private Duration reuseGrace;
+
+    @Transactional
+    public IssuedRefreshToken issue(String email) {
+        long now = System.currentTimeMillis();
+        return create(email, UUID.randomUUID().toString(), now + maxSession.toMillis(), now, randomToken());
+    }
+
+    // Returns the replacement token; throws BadCredentialsException for unknown, expired, revoked or reused tokens
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public IssuedRefreshToken rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new BadCredentialsException("Missing refresh token");
+        }
+        RefreshTokenEntity current = refreshTokenRepository.findByTokenHashForUpdate(hash(rawToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+
+        long now = System.currentTimeMillis();
+        if (!current.isRevoked() && current.getUsedAt() != null && now - current.getUsedAt() <= reuseGrace.toMillis()) {
+            Optional<IssuedRefreshToken> successor = successor(current, rawToken, now);
+            if (successor.isPresent()) {
+                return successor.get();
+            }
+        }
+        if (current.isRevoked() || current.getUsedAt() != null) {
+            log.warn("Refresh token reuse detected, revoking session family {}", current.getFamilyId());
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            tokenRevocationService.revokeAllForUser(current.getEmail());
+            throw new BadCredentialsException("Refresh token reuse detected");
+        }
+        if (current.getExpiresAt() < now) {
+            throw new BadCredentialsException("Refresh token expired");
+        }
+
+        String salt = randomToken();
+        current.setUsedAt(now);
+        current.setSuccessorSalt(salt);
+        return create(current.getEmail(), current.getFamilyId(), current.getFamilyExpiresAt(), now,
+                successorToken(rawToken, salt));
+    }
+
+    // The successor of a just-rotated token, as long as nobody has rotated it further yet
+    private Optional<IssuedRefreshToken> successor(RefreshTokenEntity current, String rawToken, long now) {
+        if (current.getSuccessorSalt() == null) {
+            return Optional.empty();
+        }
+        String successorToken = successorToken(rawToken, current.getSuccessorSalt());
+        return refreshTokenRepository.findByTokenHashForUpdate(hash(successorToken))
+                .filter(successor -> !successor.isRevoked() && successor.getUsedAt() == null
+                        && successor.getExpiresAt() >= now)
+                .map(successor -> new IssuedRefreshToken(successorToken, successor.getFamilyId(),
+                        successor.getEmail(), Duration.ofMillis(successor.getExpiresAt() - now)));
+    }
+
+    @Transactional
+    public void revokeFamily(String familyId) {
+        if (familyId != null) {
+            refreshTokenRepository.revokeFamily(familyId);
+        }
+    }
+
+    @Transactional
+    public void revokeAllForUser(String email) {
+        refreshTokenRepository.revokeAllForEmail(email);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-token.purge-interval:PT1H}")
+    @Transactional
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(System.currentTimeMillis());
+    }
+
+    private IssuedRefreshToken create(String email, String familyId, long familyExpiresAt, long now, String rawToken) {
+        long expiresAt = Math.min(now + refreshTokenTtl.toMillis(), familyExpiresAt);
+
+        refreshTokenRepository.save(RefreshTokenEntity.builder()
+                .tokenHash(hash(rawToken))
+                .familyId(familyId)
+                .email(email)
+                .expiresAt(expiresAt)
+                .familyExpiresAt(familyExpiresAt)
+                .revoked(false)
+                .build());
+        return new IssuedRefreshToken(rawToken, familyId, email, Duration.ofMillis(expiresAt - now));
+    }
+
+    private String randomToken() {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // Only the stored salt and the raw previous token (which the server never keeps) reproduce the successor
+    private static String successorToken(String rawToken, String salt) {
+        byte[] digest = sha256().digest((salt + "." + rawToken).getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    private static String hash(String rawToken) {
+        return HexFormat.of().formatHex(sha256().digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package amol.com.authmatrixbackend.service;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import amol.com.authmatrixbackend.repository.UserRepository;
+import amol.com.authmatrixbackend.util.BloomFilter;
+
+// Bloom filter over every registered email, warmed from tbl_users once the application is up.
+// "Definitely not registered" skips the existence query; "maybe" is confirmed against the database before
+// the password is hashed. Emails registered on other nodes are missing until restart, which only costs a
+// wasted hash: the unique index still rejects the insert.
+@Component
+public class RegisteredEmailFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RegisteredEmailFilter.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BloomFilter emails;
+    // Until warmed every email is "maybe", so nothing is skipped on a partially loaded filter
+    private volatile boolean warmed;
+
+    public RegisteredEmailFilter(UserRepository userRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${auth.registration.expected-users:1000000}") int expectedUsers) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.emails = new BloomFilter(expectedUsers, 0.01);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        long start = System.nanoTime();
+        long count = transactionTemplate.execute(status -> {
+            long loaded = 0;
+            try (Stream<String> registered = userRepository.streamAllEmails()) {
+                for (Iterator<String> it = registered.iterator(); it.hasNext(); loaded++) {
+                    emails.put(it.next());
+                }
+            }
+            return loaded;
+        });
+        warmed = true;
+        log.info("Registered email filter warmed with {} emails in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean mightBeRegistered(String email) {
+        return !warmed || emails.mightContain(email);
+    }
+
+    public void registered(String email) {
+        emails.put(email);
+    }
+}
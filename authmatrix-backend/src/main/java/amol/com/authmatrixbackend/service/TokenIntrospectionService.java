@@ -0,0 +1,158 @@
+package amol.com.authmatrixbackend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import amol.com.authmatrixbackend.io.IntrospectionResponse;
+import amol.com.authmatrixbackend.repository.UserRepository;
+import amol.com.authmatrixbackend.repository.UserSummary;
+import amol.com.authmatrixbackend.security.TokenRevocationService;
+import amol.com.authmatrixbackend.security.VerifiedTokenCache;
+import amol.com.authmatrixbackend.util.JwtUtil;
+import amol.com.authmatrixbackend.util.VerifiedToken;
+import jakarta.annotation.PreDestroy;
+
+// Batch introspection for the gateway: cache hits are answered inline, misses are verified in parallel,
+// and the surviving subjects are resolved with a single IN (...) query.
+@Service
+public class TokenIntrospectionService {
+
+    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserRepository userRepository;
+    private final List<byte[]> clientKeys;
+    private final ThreadPoolExecutor verifier;
+
+    public TokenIntrospectionService(JwtUtil jwtUtil,
+                                     VerifiedTokenCache verifiedTokenCache,
+                                     TokenRevocationService tokenRevocationService,
+                                     UserRepository userRepository,
+                                     @Value("${auth.introspection.client-keys:}") List<String> clientKeys,
+                                     @Value("${auth.introspection.threads:0}") int threads,
+                                     @Value("${auth.introspection.queue-capacity:1000}") int queueCapacity) {
+        this.jwtUtil = jwtUtil;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userRepository = userRepository;
+        this.clientKeys = clientKeys.stream()
+                .filter(key -> !key.isBlank())
+                .map(key -> key.trim().getBytes(StandardCharsets.UTF_8))
+                .toList();
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        // Bounded so a burst of batches is shed with 503 instead of queueing without limit
+        this.verifier = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "token-introspection-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Constant-time comparison against every configured key; no keys configured means introspection is disabled
+    public boolean isAuthorizedClient(String clientKey) {
+        if (clientKey == null || clientKeys.isEmpty()) {
+            return false;
+        }
+        byte[] presented = clientKey.getBytes(StandardCharsets.UTF_8);
+        boolean match = false;
+        for (byte[] key : clientKeys) {
+            match |= MessageDigest.isEqual(key, presented);
+        }
+        return match;
+    }
+
+    public List<IntrospectionResponse.Result> introspect(List<String> tokens) {
+        VerifiedToken[] verified = new VerifiedToken[tokens.size()];
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            if (token == null || token.isBlank()) {
+                continue;
+            }
+            VerifiedToken cached = verifiedTokenCache.getIfPresent(token);
+            if (cached != null) {
+                verified[i] = cached;
+                continue;
+            }
+            int index = i;
+            try {
+                pending.add(CompletableFuture.runAsync(() -> verified[index] = verifyQuietly(token), verifier));
+            } catch (RejectedExecutionException e) {
+                // Tasks already queued still finish and warm the cache for the gateway's retry
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Introspection is busy, please retry shortly");
+            }
+        }
+        // join() publishes the workers' array writes to this thread
+        pending.forEach(CompletableFuture::join);
+
+        Set<String> subjects = new HashSet<>();
+        for (int i = 0; i < verified.length; i++) {
+            VerifiedToken token = verified[i];
+            if (token == null || token.subject() == null || token.isExpired() || tokenRevocationService.isRevoked(token)) {
+                verified[i] = null;
+            } else {
+                subjects.add(token.subject());
+            }
+        }
+        Map<String, UserSummary> users = subjects.isEmpty()
+                ? Map.of()
+                : userRepository.findSummariesByEmailIn(subjects).stream()
+                        .collect(Collectors.toMap(UserSummary::email, Function.identity()));
+
+        List<IntrospectionResponse.Result> results = new ArrayList<>(verified.length);
+        for (VerifiedToken token : verified) {
+            UserSummary user = token == null ? null : users.get(token.subject());
+            results.add(user == null ? IntrospectionResponse.Result.inactive() : active(token, user));
+        }
+        return results;
+    }
+
+    private VerifiedToken verifyQuietly(String token) {
+        try {
+            return verifiedTokenCache.get(token, jwtUtil::verify);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static IntrospectionResponse.Result active(VerifiedToken token, UserSummary user) {
+        return IntrospectionResponse.Result.builder()
+                .active(true)
+                .sub(token.subject())
+                .uid(user.userId())
+                .sid(token.sessionId())
+                .jti(token.tokenId())
+                .iat(token.issuedAt() != null ? token.issuedAt().getTime() / 1000 : null)
+                .exp(token.expiration() != null ? token.expiration().getTime() / 1000 : null)
+                .roles(token.authorities())
+                .accountVerified(Boolean.TRUE.equals(user.isAccountVerified()))
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        verifier.shutdown();
+    }
+}
@@ -0,0 +1,42 @@
+package amol.com.authmatrixbackend.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+// Strong ETags from content hashes: the same bytes always get the same quoted tag, on every node
+public final class ContentEtags {
+
+    private ContentEtags() {
+    }
+
+    public static String strong(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = content.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return quote(digest.digest());
+    }
+
+    public static String strong(byte[] content) {
+        return quote(sha256().digest(content));
+    }
+
+    // 128 bits of SHA-256 is plenty to tell representations apart
+    private static String quote(byte[] hash) {
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)) + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,45 +1,158 @@
 package amol.com.authmatrixbackend.util;
 
+import java.security.Key;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import amol.com.authmatrixbackend.entity.UserEntity;
+import amol.com.authmatrixbackend.repository.UserSummary;
+import amol.com.authmatrixbackend.security.SigningKeyRing;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret.key}")
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_VERIFIED = "verified";
+    public static final String CLAIM_AUTHORITIES = "roles";
+    public static final String CLAIM_SESSION_ID = "sid";
+
+    @Value("${jwt.secret.key:}")
     private String SECRET_KEY;
 
+    // HS256 signs with the shared secret; ES256 signs with the keyring and publishes public keys as a JWKS
+    @Value("${jwt.signing.algorithm:HS256}")
+    private String algorithm;
+
+    @Value("${jwt.access-token.ttl:PT10H}")
+    private Duration accessTokenTtl;
+
+    @Autowired
+    private SigningKeyRing keyRing;
+
+    // Built once at startup; the parser is immutable and thread-safe
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        if (usesKeyRing()) {
+            jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = keyRing.find(header.getKeyId());
+                        if (key == null) {
+                            throw new SignatureException("Unknown signing key id");
+                        }
+                        return key;
+                    }
+                })
+                .build();
+            return;
+        }
+        if (!SignatureAlgorithm.HS256.getValue().equals(algorithm)) {
+            throw new IllegalStateException("Unsupported jwt.signing.algorithm: " + algorithm);
+        }
+        if (SECRET_KEY == null || SECRET_KEY.isBlank()) {
+            throw new IllegalStateException("jwt.secret.key is required for HS256 signing");
+        }
+        signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        jwtParser = Jwts.parserBuilder()
+            .setSigningKey(signingKey)
+            .build();
+    }
+
+    public boolean usesKeyRing() {
+        return SigningKeyRing.ALGORITHM.equals(algorithm);
+    }
+
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
         return createToken(claims, userDetails.getUsername());
     }
 
+    // Carries what the filter needs to build the principal without a DB lookup
+    public String generateToken(UserEntity user, Collection<? extends GrantedAuthority> authorities) {
+        return generateToken(user, authorities, null);
+    }
+
+    // sessionId links the access token to its refresh-token family so logout can end the whole session
+    public String generateToken(UserEntity user, Collection<? extends GrantedAuthority> authorities, String sessionId) {
+        return generateToken(UserSummary.of(user), authorities, sessionId);
+    }
+
+    public String generateToken(UserSummary user, Collection<? extends GrantedAuthority> authorities, String sessionId) {
+        Map<String, Object> claims = new HashMap<>();
+        if (sessionId != null) {
+            claims.put(CLAIM_SESSION_ID, sessionId);
+        }
+        claims.put(CLAIM_USER_ID, user.userId());
+        claims.put(CLAIM_VERIFIED, Boolean.TRUE.equals(user.isAccountVerified()));
+        claims.put(CLAIM_AUTHORITIES, authorities.stream().map(GrantedAuthority::getAuthority).toList());
+        return createToken(claims, user.email());
+    }
+
     private String createToken(Map<String, Object> claims, String email) {
-        return Jwts.builder()
+        long now = System.currentTimeMillis();
+        JwtBuilder builder = Jwts.builder()
             .setClaims(claims)
             .setSubject(email)
-            .setIssuedAt(new Date(System.currentTimeMillis()))
-            .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // 10 hours
-            .signWith(Keys.hmacShaKeyFor(SECRET_KEY.getBytes()), SignatureAlgorithm.HS256)
+            .setId(UUID.randomUUID().toString()) // jti, the revocation key
+            .setIssuedAt(new Date(now))
+            .setExpiration(new Date(now + accessTokenTtl.toMillis()));
+        if (usesKeyRing()) {
+            SigningKeyRing.SigningKey key = keyRing.current();
+            return builder
+                .setHeaderParam(JwsHeader.KEY_ID, key.kid())
+                .signWith(key.keyPair().getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+        }
+        return builder
+            .signWith(signingKey, SignatureAlgorithm.HS256)
             .compact();
     }
 
+    // Parses and verifies the token once; throws JwtException (e.g. ExpiredJwtException) when invalid
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+        return new VerifiedToken(
+            claims.getId(),
+            claims.getSubject(),
+            claims.get(CLAIM_USER_ID, String.class),
+            claims.get(CLAIM_SESSION_ID, String.class),
+            claims.get(CLAIM_VERIFIED, Boolean.class),
+            authorities(claims),
+            claims.getExpiration(),
+            claims.getIssuedAt());
+    }
+
+    private static List<String> authorities(Claims claims) {
+        Object value = claims.get(CLAIM_AUTHORITIES);
+        if (value instanceof Collection<?> values) {
+            return values.stream().map(String::valueOf).toList();
+        }
+        return List.of();
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-            .setSigningKey(Keys.hmacShaKeyFor(SECRET_KEY.getBytes()))
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -55,12 +168,21 @@ public class JwtUtil {
         return extractClaim(token, Claims::getExpiration);
     }
 
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
+
     public boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String email = extractEmail(token);
-        return (email.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(verify(token), userDetails);
+    }
+
+    public boolean validateToken(VerifiedToken token, UserDetails userDetails) {
+        return token.subject() != null
+            && token.subject().equals(userDetails.getUsername())
+            && !token.isExpired();
     }
 }
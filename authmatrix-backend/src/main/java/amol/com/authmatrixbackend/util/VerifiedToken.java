@@ -0,0 +1,19 @@
+package amol.com.authmatrixbackend.util;
+
+import java.util.Date;
+import java.util.List;
+
+// Result of a single parse-and-verify pass over a JWT
+public record VerifiedToken(String tokenId,
+                            String subject,
+                            String userId,
+                            String sessionId,
+                            Boolean accountVerified,
+                            List<String> authorities,
+                            Date expiration,
+                            Date issuedAt) {
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
@@ -0,0 +1,94 @@
+package amol.com.authmatrixbackend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PublicRoutesTests {
+
+    private static final String HTML = "text/html,application/xhtml+xml,*/*;q=0.8";
+
+    private final PublicRoutes publicRoutes = new PublicRoutes();
+
+    PublicRoutesTests() {
+        publicRoutes.registerApiReadPaths(List.of("/profile", "/is-authenticated", "/.well-known/jwks.json"));
+    }
+
+    @Test
+    void exactPathsMatchOnlyThemselves() {
+        assertThat(publicRoutes.match("POST", "/register")).isEqualTo(PublicRoutes.Kind.ANONYMOUS);
+        assertThat(publicRoutes.match("POST", "/verify-otp")).isEqualTo(PublicRoutes.Kind.OPTIONAL_AUTH);
+        assertThat(publicRoutes.match("POST", "/register/admin")).isNull();
+        assertThat(publicRoutes.match("POST", "/registe")).isNull();
+    }
+
+    @Test
+    void prefixesMatchEverythingBelowThem() {
+        assertThat(publicRoutes.match("GET", "/assets/index-CoGDqwA0.js")).isEqualTo(PublicRoutes.Kind.STATIC);
+        assertThat(publicRoutes.match("GET", "/assets/fonts/inter.woff2")).isEqualTo(PublicRoutes.Kind.STATIC);
+        assertThat(publicRoutes.match("GET", "/assets/report")).isEqualTo(PublicRoutes.Kind.STATIC);
+        assertThat(publicRoutes.match("GET", "/assetsx/report")).isNull();
+    }
+
+    @Test
+    void rootDoesNotMatchEverything() {
+        assertThat(publicRoutes.match("GET", "/")).isNull();
+        assertThat(publicRoutes.match("GET", "/profile")).isNull();
+        assertThat(publicRoutes.match("GET", "/some/deep/route")).isNull();
+        assertThat(publicRoutes.match("GET", "")).isNull();
+        assertThat(publicRoutes.match("GET", null)).isNull();
+    }
+
+    @Test
+    void trailingSlashIsADifferentPath() {
+        assertThat(publicRoutes.match("POST", "/login/")).isNull();
+        assertThat(publicRoutes.match("GET", "/email-verify/")).isNull();
+        assertThat(publicRoutes.match("GET", "/assets")).isNull();
+    }
+
+    @Test
+    void browserNavigationsToClientRoutesArePublicForReadsOnly() {
+        for (String route : new String[] { "/", "/login", "/email-verify", "/reset-password", "/some/deep/route" }) {
+            assertThat(publicRoutes.match("GET", route, HTML)).as(route).isEqualTo(PublicRoutes.Kind.STATIC);
+            assertThat(publicRoutes.match("HEAD", route, HTML)).as(route).isEqualTo(PublicRoutes.Kind.STATIC);
+        }
+        assertThat(publicRoutes.match("POST", "/email-verify", HTML)).isNull();
+        assertThat(publicRoutes.match("GET", "/email-verify", "application/json")).isNull();
+        // Client routes that are also endpoints keep the endpoint's kind for other methods
+        assertThat(publicRoutes.match("POST", "/login", HTML)).isEqualTo(PublicRoutes.Kind.ANONYMOUS);
+        assertThat(publicRoutes.match("POST", "/reset-password")).isEqualTo(PublicRoutes.Kind.ANONYMOUS);
+    }
+
+    @Test
+    void apiActuatorAndFilePathsAreNeverClientRoutes() {
+        assertThat(publicRoutes.match("GET", "/profile", HTML)).isNull();
+        assertThat(publicRoutes.match("GET", "/actuator/env", HTML)).isNull();
+        assertThat(publicRoutes.isClientRoute("GET", "/reports/q3.pdf", HTML)).isFalse();
+        assertThat(publicRoutes.isClientRoute("GET", "/v1.2/report", HTML)).isTrue();
+    }
+
+    @Test
+    void nothingIsAClientRouteUntilTheApiPathsAreKnown() {
+        assertThat(new PublicRoutes().match("GET", "/email-verify", HTML)).isNull();
+    }
+
+    @Test
+    void protectedPathsSharingAPublicPrefixStayProtected() {
+        assertThat(publicRoutes.match("POST", "/logout-all")).isNull();
+        assertThat(publicRoutes.match("GET", "/is-authenticated-admin")).isNull();
+        assertThat(publicRoutes.match("GET", "/actuator/health/db")).isNull();
+        assertThat(publicRoutes.match("GET", "/actuator/env")).isNull();
+        assertThat(publicRoutes.skipsAuthentication("POST", "/verify-otp")).isFalse();
+        assertThat(publicRoutes.skipsAuthentication("POST", "/login")).isTrue();
+    }
+
+    @Test
+    void staticExtensionsAreCaseInsensitiveButNeedAName() {
+        assertThat(publicRoutes.match("GET", "/favicon.ico")).isEqualTo(PublicRoutes.Kind.STATIC);
+        assertThat(publicRoutes.match("GET", "/images/Logo.PNG")).isEqualTo(PublicRoutes.Kind.STATIC);
+        assertThat(publicRoutes.match("GET", "/profile.json")).isNull();
+        assertThat(publicRoutes.match("GET", ".js")).isNull();
+    }
+}
@@ -0,0 +1,56 @@
+package amol.com.authmatrixbackend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StaticResourceConfigTests {
+
+    private static final String SCRIPT = "/assets/index-CoGDqwA0.js";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void fingerprintedAssetsArePrecompressedImmutableAndRevalidatedByEtag() throws Exception {
+        MvcResult brotli = mockMvc.perform(get(SCRIPT).header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "br"))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andReturn();
+        String brotliEtag = brotli.getResponse().getHeader(HttpHeaders.ETAG);
+
+        String identityEtag = mockMvc.perform(get(SCRIPT))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(brotliEtag).startsWith("\"").isNotEqualTo(identityEtag);
+
+        mockMvc.perform(get(SCRIPT)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, br")
+                        .header(HttpHeaders.IF_NONE_MATCH, brotliEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void indexIsRevalidatedOnEveryLoad() throws Exception {
+        mockMvc.perform(get("/index.html"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-cache")))
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+}
@@ -0,0 +1,103 @@
+package amol.com.authmatrixbackend.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import amol.com.authmatrixbackend.entity.UserEntity;
+import amol.com.authmatrixbackend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthControllerLoginTests {
+
+    private static final String EMAIL = "login-test@example.com";
+    private static final String PASSWORD = "secret123";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        if (!userRepository.existsByEmail(EMAIL)) {
+            userRepository.save(UserEntity.builder()
+                    .email(EMAIL)
+                    .userId(UUID.randomUUID().toString())
+                    .name("Login Test")
+                    .password(passwordEncoder.encode(PASSWORD))
+                    .isAccountVerified(false)
+                    .build());
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void loginReadsTheUserOnce() throws Exception {
+        mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + EMAIL + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(EMAIL))
+                .andExpect(jsonPath("$.jwt").isNotEmpty());
+
+        // One SELECT for the user; the only other statement is the refresh-token INSERT
+        assertThat(statistics.getQueryExecutionCount()).isLessThanOrEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void loginRecordsPhaseTimings() throws Exception {
+        long before = meterRegistry.get("auth.login").tag("outcome", "success").timer().count();
+
+        mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + EMAIL + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("auth.login").tag("outcome", "success").timer().count()).isEqualTo(before + 1);
+        for (String phase : new String[] {"db", "hash", "sign", "session"}) {
+            assertThat(meterRegistry.get("auth.login.phase").tag("phase", phase).timer().count()).isPositive();
+        }
+    }
+
+    @Test
+    void wrongPasswordIsRejectedWithOneSqlStatement() throws Exception {
+        mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + EMAIL + "\",\"password\":\"wrong-password\"}"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(1);
+    }
+}
@@ -0,0 +1,98 @@
+package amol.com.authmatrixbackend.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.forwardedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class FrontendControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void clientRoutesServeIndexFromMemoryWithAnEtag() throws Exception {
+        String etag = mockMvc.perform(navigate("/reset-password"))
+                .andExpect(status().isOk())
+                .andExpect(forwardedUrl(null))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_HTML))
+                .andExpect(content().string(containsString("<div id=\"root\">")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-cache")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(navigate("/login").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void anyClientRouteReloadsWithoutCredentials() throws Exception {
+        // Routes of App.jsx, plus ones the server has never heard of: the React router decides what they show
+        for (String route : new String[] { "/", "/login", "/email-verify", "/reset-password", "/some/future/route" }) {
+            mockMvc.perform(navigate(route))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_HTML))
+                    .andExpect(content().string(containsString("<div id=\"root\">")));
+        }
+    }
+
+    @Test
+    void fallbackLeavesApiFilesAndNonHtmlRequestsAlone() throws Exception {
+        // An API GET keeps its own handler and still needs a token
+        mockMvc.perform(navigate("/profile"))
+                .andExpect(status().isUnauthorized());
+        // Paths with an extension are files, and actuator paths are never the SPA
+        mockMvc.perform(navigate("/missing.png"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(navigate("/actuator/unknown"))
+                .andExpect(status().isUnauthorized());
+        // Only browser navigations get the shell
+        mockMvc.perform(get("/email-verify").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void htmlShellKeepsTheSecurityHeaders() throws Exception {
+        for (String route : new String[] { "/", "/login", "/index.html" }) {
+            mockMvc.perform(navigate(route).secure(true))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("X-Frame-Options", "DENY"))
+                    .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+                    .andExpect(header().exists("Strict-Transport-Security"));
+        }
+    }
+
+    @Test
+    void clientRoutesArePublicForReadsOnly() throws Exception {
+        mockMvc.perform(post("/email-verify").accept(MediaType.TEXT_HTML))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void apiRoutesSharingAClientPathStillReachTheApi() throws Exception {
+        mockMvc.perform(post("/login")
+                        .accept(MediaType.TEXT_HTML, MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"nobody@example.com\",\"password\":\"wrong\"}"))
+                .andExpect(status().is4xxClientError())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    // What a browser sends when the address bar is reloaded
+    private static MockHttpServletRequestBuilder navigate(String route) {
+        return get(route).header(HttpHeaders.ACCEPT, "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
+    }
+}
@@ -0,0 +1,90 @@
+package amol.com.authmatrixbackend.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import amol.com.authmatrixbackend.entity.UserEntity;
+import amol.com.authmatrixbackend.repository.UserRepository;
+import amol.com.authmatrixbackend.util.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IntrospectionControllerTests {
+
+    private static final String CLIENT_KEY = "test-gateway-key";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void batchIsVerifiedWithOneUserQuery() throws Exception {
+        String first = jwtUtil.generateToken(user("introspect-a@example.com"), List.of());
+        String second = jwtUtil.generateToken(user("introspect-b@example.com"), List.of());
+        statistics.clear();
+
+        mockMvc.perform(post("/introspect")
+                        .header(IntrospectionController.CLIENT_KEY_HEADER, CLIENT_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tokens\":[\"" + first + "\",\"not-a-jwt\",\"" + second + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].active").value(true))
+                .andExpect(jsonPath("$.results[0].sub").value("introspect-a@example.com"))
+                .andExpect(jsonPath("$.results[1].active").value(false))
+                .andExpect(jsonPath("$.results[1].sub").doesNotExist())
+                .andExpect(jsonPath("$.results[2].active").value(true))
+                .andExpect(jsonPath("$.results[2].sub").value("introspect-b@example.com"));
+
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void unknownClientKeyIsRejected() throws Exception {
+        mockMvc.perform(post("/introspect")
+                        .header(IntrospectionController.CLIENT_KEY_HEADER, "wrong-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tokens\":[\"not-a-jwt\"]}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private UserEntity user(String email) {
+        return userRepository.findByEmail(email).orElseGet(() -> userRepository.save(UserEntity.builder()
+                .email(email)
+                .userId(UUID.randomUUID().toString())
+                .name("Introspection Test")
+                .password("unused")
+                .isAccountVerified(true)
+                .build()));
+    }
+}
@@ -0,0 +1,116 @@
+package amol.com.authmatrixbackend.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.h2.jdbc.JdbcSQLDataException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import amol.com.authmatrixbackend.repository.EmailOutboxRepository;
+import amol.com.authmatrixbackend.service.RegisteredEmailFilter;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProfileControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RegisteredEmailFilter registeredEmailFilter;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void registrationQueuesTheWelcomeEmailAndRejectsDuplicatesBeforeInserting() throws Exception {
+        String email = "register-once@example.com";
+        mockMvc.perform(register(email)).andExpect(status().isCreated());
+        assertThat(welcomeEmailsFor(email)).isEqualTo(1);
+
+        statistics.clear();
+        mockMvc.perform(register(email)).andExpect(status().isConflict());
+
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(welcomeEmailsFor(email)).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentDuplicateRegistrationsYieldOneCreatedAndOneConflict() throws Exception {
+        String email = "register-race@example.com";
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<Integer> attempt = () -> {
+            start.await();
+            return mockMvc.perform(register(email)).andReturn().getResponse().getStatus();
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Integer>> results = List.of(executor.submit(attempt), executor.submit(attempt));
+            start.countDown();
+            assertThat(List.of(results.get(0).get(), results.get(1).get())).containsExactlyInAnyOrder(201, 409);
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(welcomeEmailsFor(email)).isEqualTo(1);
+    }
+
+    @Test
+    void otherIntegrityViolationsAreNotReportedAsDuplicates() throws Exception {
+        String email = "register-too-long@example.com";
+
+        // The name column is 255 characters
+        assertThatThrownBy(() -> mockMvc.perform(register(email, "x".repeat(300))))
+                .hasRootCauseInstanceOf(JdbcSQLDataException.class)
+                .cause().isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(registeredEmailFilter.mightBeRegistered(email)).isFalse();
+        mockMvc.perform(register(email)).andExpect(status().isCreated());
+    }
+
+    private MockHttpServletRequestBuilder register(String email) {
+        return register(email, "Register Test");
+    }
+
+    private MockHttpServletRequestBuilder register(String email, String name) {
+        return post("/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"" + name + "\",\"email\":\"" + email + "\",\"password\":\"password-123\"}");
+    }
+
+    private long welcomeEmailsFor(String email) {
+        return emailOutboxRepository.findAll().stream()
+                .filter(outbox -> outbox.getRecipient().equals(email))
+                .count();
+    }
+}
@@ -0,0 +1,77 @@
+package amol.com.authmatrixbackend.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+
+class CachedBodyHttpServletRequestTests {
+
+    private static final byte[] BODY = "{\"email\":\"async@example.com\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void readListenerReceivesTheBufferedBody() throws Exception {
+        ServletInputStream input = new CachedBodyHttpServletRequest(new MockHttpServletRequest(), BODY).getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("data");
+                byte[] buffer = new byte[8];
+                while (input.isReady() && !input.isFinished()) {
+                    int n = input.read(buffer);
+                    read.write(buffer, 0, n);
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertThat(events).containsExactly("data", "done");
+        assertThat(read.toByteArray()).isEqualTo(BODY);
+    }
+
+    @Test
+    void readListenerFailuresGoToOnError() throws Exception {
+        ServletInputStream input = new CachedBodyHttpServletRequest(new MockHttpServletRequest(), BODY).getInputStream();
+        List<Throwable> errors = new ArrayList<>();
+        IOException failure = new IOException("client went away");
+
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                throw failure;
+            }
+
+            @Override
+            public void onAllDataRead() {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                errors.add(t);
+            }
+        });
+
+        assertThat(errors).containsExactly(failure);
+    }
+}
@@ -0,0 +1,107 @@
+package amol.com.authmatrixbackend.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import amol.com.authmatrixbackend.config.PublicRoutes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+class ConcurrencyLimitFilterTests {
+
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Holds the only permit until the test releases it
+    private final FilterChain blockingChain = (request, response) -> {
+        entered.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    void requestsBeyondTheLimitAreRejectedAfterTheTimeout() throws Exception {
+        ConcurrencyLimitFilter filter = filter(Duration.ofMillis(100));
+        CompletableFuture<MockHttpServletResponse> holder = holdThePermit(filter);
+
+        MockHttpServletResponse rejected = perform(filter, "/profile");
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(meterRegistry.get("auth.concurrency.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.concurrency.in-flight").gauge().value()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(holder.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("auth.concurrency.in-flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void requestsBeyondTheLimitWaitForAPermitWithinTheTimeout() throws Exception {
+        ConcurrencyLimitFilter filter = filter(Duration.ofSeconds(5));
+        holdThePermit(filter);
+
+        CompletableFuture<MockHttpServletResponse> queued = CompletableFuture.supplyAsync(() -> perform(filter, "/profile"));
+        Thread.sleep(100);
+        assertThat(queued).isNotDone();
+
+        release.countDown();
+        assertThat(queued.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("auth.concurrency.rejected").counter().count()).isZero();
+    }
+
+    @Test
+    void staticFilesAreNotCounted() throws Exception {
+        ConcurrencyLimitFilter filter = filter(Duration.ofMillis(100));
+        holdThePermit(filter);
+
+        assertThat(perform(filter, "/assets/index.js").getStatus()).isEqualTo(200);
+    }
+
+    private ConcurrencyLimitFilter filter(Duration acquireTimeout) {
+        return new ConcurrencyLimitFilter(new PublicRoutes(), true, 1, acquireTimeout, meterRegistry);
+    }
+
+    private CompletableFuture<MockHttpServletResponse> holdThePermit(ConcurrencyLimitFilter filter) throws Exception {
+        CompletableFuture<MockHttpServletResponse> holder = CompletableFuture.supplyAsync(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/profile"), response, blockingChain);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return response;
+        });
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        return holder;
+    }
+
+    private static MockHttpServletResponse perform(ConcurrencyLimitFilter filter, String uri) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(new MockHttpServletRequest("GET", uri), response, (request, ignored) -> { });
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,148 @@
+package amol.com.authmatrixbackend.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import amol.com.authmatrixbackend.entity.UserEntity;
+import amol.com.authmatrixbackend.repository.UserRepository;
+import amol.com.authmatrixbackend.security.InMemoryRateLimiterBackend;
+import amol.com.authmatrixbackend.util.JwtUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+@SpringBootTest(properties = {
+        "auth.rate-limit.ip.capacity=100",
+        "auth.rate-limit.email.capacity=2",
+        "auth.rate-limit.email.refill-period=PT1H",
+        "auth.lockout.enabled=false"
+})
+@AutoConfigureMockMvc
+class RateLimitFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void emailLimitAppliesAcrossClientIpsAndAnswers429WithRetryAfter() throws Exception {
+        String email = "limited-" + UUID.randomUUID() + "@example.com";
+        assertThat(statusOf(resetOtp(email, "10.0.0.1"))).isNotEqualTo(429);
+        assertThat(statusOf(resetOtp(email.toUpperCase(), "10.0.0.2"))).isNotEqualTo(429);
+
+        String retryAfter = mockMvc.perform(resetOtp(email, "10.0.0.3"))
+                .andExpect(status().isTooManyRequests())
+                .andReturn().getResponse().getHeader(HttpHeaders.RETRY_AFTER);
+        assertThat(Long.parseLong(retryAfter)).isPositive().isLessThanOrEqualTo(1800);
+
+        assertThat(statusOf(resetOtp("other-" + email, "10.0.0.3"))).isNotEqualTo(429);
+    }
+
+    @Test
+    void emailIsLimitedWithoutAContentLength() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(new InMemoryRateLimiterBackend(100, Duration.ofMinutes(1)),
+                objectMapper, true, 100, Duration.ofMinutes(1), 2, Duration.ofHours(1));
+        int[] statuses = new int[3];
+        for (int i = 0; i < statuses.length; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+            request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            request.setContent("{\"email\":\"chunked@example.com\",\"password\":\"x\"}".getBytes());
+            // As with Transfer-Encoding: chunked
+            HttpServletRequest chunked = new HttpServletRequestWrapper(request) {
+                @Override
+                public long getContentLengthLong() {
+                    return -1;
+                }
+            };
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(chunked, response, chain);
+            statuses[i] = response.getStatus();
+            if (chain.getRequest() != null) {
+                // The controller still gets the whole body
+                assertThat(chain.getRequest().getInputStream().readAllBytes()).isEqualTo(request.getContentAsByteArray());
+            }
+        }
+        assertThat(statuses).containsExactly(200, 200, 429);
+    }
+
+    @Test
+    void oversizedBodiesAreRejectedInsteadOfSkippingTheEmailLimit() throws Exception {
+        String padding = "x".repeat(20 * 1024);
+        mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"big@example.com\",\"padding\":\"" + padding + "\"}"))
+                .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    void otpEndpointsAreLimitedPerSignedInUser() throws Exception {
+        String email = "otp-" + UUID.randomUUID() + "@example.com";
+        userRepository.save(UserEntity.builder()
+                .email(email)
+                .userId(UUID.randomUUID().toString())
+                .name("Otp Limit")
+                .password("unused")
+                .isAccountVerified(false)
+                .build());
+        String token = jwtUtil.generateToken(userRepository.findByEmail(email).orElseThrow(), List.of());
+
+        for (String ip : List.of("10.0.2.1", "10.0.2.2")) {
+            mockMvc.perform(sendOtp(token, ip)).andExpect(status().isOk());
+        }
+        mockMvc.perform(sendOtp(token, "10.0.2.3"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    private int statusOf(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andReturn().getResponse().getStatus();
+    }
+
+    private static MockHttpServletRequestBuilder resetOtp(String email, String ip) {
+        return post("/send-reset-otp")
+                .with(request -> {
+                    request.setRemoteAddr(ip);
+                    return request;
+                })
+                .param("email", email);
+    }
+
+
+
+    private static MockHttpServletRequestBuilder sendOtp(String token, String ip) {
+        return post("/send-otp")
+                .with(request -> {
+                    request.setRemoteAddr(ip);
+                    return request;
+                })
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+}
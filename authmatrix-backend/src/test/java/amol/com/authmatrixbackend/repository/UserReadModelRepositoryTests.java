@@ -0,0 +1,75 @@
+package amol.com.authmatrixbackend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import amol.com.authmatrixbackend.entity.UserEntity;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+class UserReadModelRepositoryTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void singleUserReadModelsAreServedFromTheCache() {
+        String email = "read-model-" + UUID.randomUUID() + "@example.com";
+        UserEntity saved = userRepository.save(user(email));
+        userRepository.findSummaryByEmail(email);
+
+        statistics.clear();
+        assertThat(userRepository.findCredentialsByEmail(email)).contains(new UserCredentials(email, "hash"));
+        assertThat(userRepository.findLoginByEmail(email))
+                .contains(new UserLogin(saved.getUserId(), "Read Model Test", email, "hash", true));
+        assertThat(userRepository.findSummaryByEmail(email)).contains(UserSummary.of(saved));
+        assertThat(userRepository.findSummaryByEmail("missing-" + email)).isEmpty();
+
+        // Only the unknown email reaches the database; read-only transactions never flush
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getFlushCount()).isZero();
+    }
+
+    @Test
+    void batchLookupSelectsSummaryColumnsWithoutLoadingEntities() {
+        String email = "read-model-" + UUID.randomUUID() + "@example.com";
+        UserEntity saved = userRepository.save(user(email));
+
+        statistics.clear();
+        assertThat(userRepository.findSummariesByEmailIn(List.of(email, "missing@example.com")))
+                .containsExactly(UserSummary.of(saved));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getSecondLevelCachePutCount()).isZero();
+    }
+
+    private static UserEntity user(String email) {
+        return UserEntity.builder()
+                .email(email)
+                .userId(UUID.randomUUID().toString())
+                .name("Read Model Test")
+                .password("hash")
+                .isAccountVerified(true)
+                .build();
+    }
+}
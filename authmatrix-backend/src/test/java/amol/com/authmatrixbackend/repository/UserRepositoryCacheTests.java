@@ -0,0 +1,85 @@
+package amol.com.authmatrixbackend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import amol.com.authmatrixbackend.entity.UserEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+class UserRepositoryCacheTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findByEmailIsServedFromTheCacheAndSeesCommittedWrites() {
+        String email = "cached-" + UUID.randomUUID() + "@example.com";
+        userRepository.save(user(email));
+        userRepository.findByEmail(email);
+
+        statistics.clear();
+        assertThat(userRepository.findByEmail(email)).get().extracting(UserEntity::getName).isEqualTo("Cache Test");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        // Same read-modify-save shape as ProfileServiceImpl.verifyOtp
+        transactionTemplate.executeWithoutResult(status -> {
+            UserEntity existing = userRepository.findByEmail(email).orElseThrow();
+            existing.setIsAccountVerified(true);
+            userRepository.save(existing);
+        });
+        statistics.clear();
+        assertThat(userRepository.findByEmail(email)).get().extracting(UserEntity::getIsAccountVerified).isEqualTo(true);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", UserEntity.CACHE_REGION).tag("result", "hit")
+                .functionCounter().count()).isPositive();
+    }
+
+    @Test
+    void bulkPasswordUpdateEvictsTheCachedUser() {
+        String email = "bulk-" + UUID.randomUUID() + "@example.com";
+        userRepository.save(user(email));
+        userRepository.findByEmail(email);
+
+        assertThat(userRepository.updatePasswordIfUnchanged(email, "old-hash", "new-hash")).isEqualTo(1);
+
+        assertThat(userRepository.findByEmail(email)).get().extracting(UserEntity::getPassword).isEqualTo("new-hash");
+    }
+
+    private static UserEntity user(String email) {
+        return UserEntity.builder()
+                .email(email)
+                .userId(UUID.randomUUID().toString())
+                .name("Cache Test")
+                .password("old-hash")
+                .isAccountVerified(false)
+                .build();
+    }
+}
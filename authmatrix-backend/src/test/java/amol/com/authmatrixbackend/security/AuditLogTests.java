@@ -0,0 +1,86 @@
+package amol.com.authmatrixbackend.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuditLogTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        auditLog.flush();
+        jdbcTemplate.update("DELETE FROM tbl_auth_audit");
+    }
+
+    @Test
+    void failedLoginIsAuditedOnFlushWithoutCredentials() throws Exception {
+        mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"audit-nobody@example.com\",\"password\":\"secret-password\"}"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tbl_auth_audit", Integer.class)).isZero();
+        assertThat(auditLog.flush()).isEqualTo(1);
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM tbl_auth_audit");
+        assertThat(row).containsEntry("TYPE", "LOGIN_FAILED")
+                .containsEntry("EMAIL", "audit-nobody@example.com")
+                .containsEntry("IP", "127.0.0.1")
+                .containsEntry("DETAIL", "bad_credentials");
+        assertThat(row.values()).noneMatch(value -> String.valueOf(value).contains("secret-password"));
+    }
+
+    @Test
+    void overflowPolicyDecidesWhichEventsSurviveAndDropsAreCounted() {
+        SimpleMeterRegistry dropNewestMeters = new SimpleMeterRegistry();
+        AuditLog dropNewest = newAuditLog(dropNewestMeters, AuditLog.Overflow.DROP_NEWEST);
+        SimpleMeterRegistry dropOldestMeters = new SimpleMeterRegistry();
+        AuditLog dropOldest = newAuditLog(dropOldestMeters, AuditLog.Overflow.DROP_OLDEST);
+        for (String email : List.of("first@example.com", "second@example.com", "third@example.com")) {
+            dropNewest.record(AuthEvent.Type.OTP_SENT, email, null, null);
+            dropOldest.record(AuthEvent.Type.OTP_SENT, email, null, null);
+        }
+
+        assertThat(dropNewest.flush()).isEqualTo(2);
+        assertThat(dropOldest.flush()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList("SELECT email FROM tbl_auth_audit ORDER BY id", String.class))
+                .containsExactly("first@example.com", "second@example.com", "second@example.com", "third@example.com");
+        assertThat(dropNewestMeters.get("auth.audit.dropped").counter().count()).isEqualTo(1);
+        assertThat(dropOldestMeters.get("auth.audit.dropped").counter().count()).isEqualTo(1);
+    }
+
+    private AuditLog newAuditLog(SimpleMeterRegistry meterRegistry, AuditLog.Overflow overflow) {
+        return new AuditLog(jdbcTemplate, objectMapper, meterRegistry, true, 2, overflow, 100, Duration.ofHours(1), false);
+    }
+}
@@ -0,0 +1,38 @@
+package amol.com.authmatrixbackend.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class InMemoryRateLimiterBackendTests {
+
+    private final InMemoryRateLimiterBackend backend = new InMemoryRateLimiterBackend(1000, Duration.ofMinutes(10));
+
+    @Test
+    void fullBurstIsAllowedThenOneTokenPerInterval() throws Exception {
+        RateLimiterBackend.Limit limit = new RateLimiterBackend.Limit(3, Duration.ofMillis(600));
+        for (int i = 0; i < 3; i++) {
+            assertThat(backend.tryAcquire("burst", limit)).isZero();
+        }
+
+        Duration retryAfter = backend.tryAcquire("burst", limit);
+        assertThat(retryAfter).isPositive().isLessThanOrEqualTo(Duration.ofMillis(200));
+        // Other keys have their own bucket
+        assertThat(backend.tryAcquire("other", limit)).isZero();
+
+        Thread.sleep(retryAfter.toMillis() + 20);
+        assertThat(backend.tryAcquire("burst", limit)).isZero();
+        assertThat(backend.tryAcquire("burst", limit)).isPositive();
+    }
+
+    @Test
+    void invalidLimitsFailWhenBuilt() {
+        assertThatThrownBy(() -> new RateLimiterBackend.Limit(0, Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RateLimiterBackend.Limit(5, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,79 @@
+package amol.com.authmatrixbackend.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+class JdbcSigningKeyStoreTests {
+
+    @Autowired
+    private JdbcSigningKeyStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Far beyond the live ring's keys so its rotation is unaffected
+    private final long activatesAt = 4_000_000_000_000L + ThreadLocalRandom.current().nextLong(1_000_000_000L);
+    private final String kid = "test-" + Long.toString(activatesAt, 36);
+
+    @AfterEach
+    void tearDown() {
+        store.delete(kid);
+    }
+
+    @Test
+    void privateKeysAreEncryptedAtRestAndReadBack() throws Exception {
+        SigningKeyStore.StoredKey key = newKey();
+        store.insert(key);
+
+        byte[] stored = jdbcTemplate.queryForObject("SELECT private_key FROM tbl_signing_key WHERE kid = ?",
+                byte[].class, kid);
+        assertThat(stored).isNotEqualTo(key.privateKey());
+        assertThat(new String(stored, StandardCharsets.ISO_8859_1))
+                .doesNotContain(new String(key.privateKey(), StandardCharsets.ISO_8859_1));
+        assertThat(store.findAll())
+                .filteredOn(found -> found.kid().equals(kid))
+                .singleElement()
+                .satisfies(found -> assertThat(found.privateKey()).isEqualTo(key.privateKey()));
+    }
+
+    @Test
+    void keysWrittenWithoutEncryptionStillLoad() throws Exception {
+        SigningKeyStore.StoredKey key = newKey();
+        new JdbcSigningKeyStore(jdbcTemplate, "").insert(key);
+
+        assertThat(store.findAll())
+                .filteredOn(found -> found.kid().equals(kid))
+                .singleElement()
+                .satisfies(found -> assertThat(found.privateKey()).isEqualTo(key.privateKey()));
+    }
+
+    @Test
+    void wrongEncryptionKeyFailsInsteadOfLoadingGarbage() throws Exception {
+        store.insert(newKey());
+
+        assertThatThrownBy(() -> new JdbcSigningKeyStore(jdbcTemplate, "some-other-secret").findAll())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("jwt.signing.encryption-key");
+    }
+
+    private SigningKeyStore.StoredKey newKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+        return new SigningKeyStore.StoredKey(kid, keyPair.getPrivate().getEncoded(), keyPair.getPublic().getEncoded(),
+                activatesAt);
+    }
+}
@@ -0,0 +1,148 @@
+package amol.com.authmatrixbackend.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import amol.com.authmatrixbackend.entity.UserEntity;
+import amol.com.authmatrixbackend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+        "auth.lockout.email.max-failures=3",
+        "auth.lockout.initial-duration=PT1S",
+        "auth.rate-limit.enabled=false"
+})
+@AutoConfigureMockMvc
+class LoginLockoutTests {
+
+    private static final String PASSWORD = "secret123";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoginLockout loginLockout;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void lockedAccountIsRejectedBeforeThePasswordCheckAndPersisted() throws Exception {
+        String email = createUser();
+        for (int i = 0; i < 3; i++) {
+            login(email, "wrong-password").andExpect(status().isBadRequest());
+        }
+        long hashes = meterRegistry.get("auth.login.phase").tag("phase", "hash").timer().count();
+
+        login(email, PASSWORD)
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+
+        assertThat(meterRegistry.get("auth.login.phase").tag("phase", "hash").timer().count()).isEqualTo(hashes);
+        loginLockout.awaitWrites();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT lockouts FROM tbl_login_lockout WHERE lock_key = ?", Integer.class, "email:" + email))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void successfulLoginResetsTheEmailCounter() throws Exception {
+        String email = createUser();
+        login(email, "wrong-password").andExpect(status().isBadRequest());
+        login(email, "wrong-password").andExpect(status().isBadRequest());
+        login(email, PASSWORD).andExpect(status().isOk());
+        login(email, "wrong-password").andExpect(status().isBadRequest());
+        login(email, "wrong-password").andExpect(status().isBadRequest());
+
+        assertThat(loginLockout.retryAfter(email, null)).isZero();
+    }
+
+    @Test
+    void repeatedLocksBackOffExponentially() throws Exception {
+        String email = "backoff-" + UUID.randomUUID() + "@example.com";
+        assertThat(loginLockout.failed(email, null)).isNull();
+        assertThat(loginLockout.failed(email, null)).isNull();
+        assertThat(loginLockout.failed(email, null)).isEqualTo(LoginLockout.Scope.EMAIL);
+        assertThat(loginLockout.retryAfter(email.toUpperCase(), null)).isPositive().isLessThanOrEqualTo(Duration.ofSeconds(1));
+
+        Thread.sleep(1100);
+        assertThat(loginLockout.retryAfter(email, null)).isZero();
+        // The counter has barely decayed, so the next failure locks again for twice as long
+        assertThat(loginLockout.failed(email, null)).isEqualTo(LoginLockout.Scope.EMAIL);
+        assertThat(loginLockout.retryAfter(email, null)).isGreaterThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void ipLockAppliesToTheClientAddressOnly() throws Exception {
+        // A password spray: one failure for each of many accounts from one address
+        for (int i = 0; i < 100; i++) {
+            loginLockout.failed("spray-" + i + "-" + UUID.randomUUID() + "@example.com", "10.9.9.9");
+        }
+        String email = createUser();
+
+        login(email, PASSWORD, "10.9.9.9").andExpect(status().isTooManyRequests());
+        login(email, PASSWORD, "10.9.9.10").andExpect(status().isOk());
+    }
+
+    @Test
+    void activeLocksAreRestoredFromTheTable() {
+        String email = "restored-" + UUID.randomUUID() + "@example.com";
+        jdbcTemplate.update("INSERT INTO tbl_login_lockout (lock_key, locked_until, lockouts) VALUES (?, ?, ?)",
+                "email:" + email, System.currentTimeMillis() + 60_000, 3);
+
+        loginLockout.load();
+
+        assertThat(loginLockout.retryAfter(email, "10.0.0.1")).isGreaterThan(Duration.ofSeconds(50));
+    }
+
+    private String createUser() {
+        String email = "lockout-" + UUID.randomUUID() + "@example.com";
+        userRepository.save(UserEntity.builder()
+                .email(email)
+                .userId(UUID.randomUUID().toString())
+                .name("Lockout Test")
+                .password(passwordEncoder.encode(PASSWORD))
+                .isAccountVerified(false)
+                .build());
+        return email;
+    }
+
+    private ResultActions login(String email, String password) throws Exception {
+        return login(email, password, "127.0.0.1");
+    }
+
+    private ResultActions login(String email, String password, String ip) throws Exception {
+        return mockMvc.perform(post("/login")
+                .with(request -> {
+                    request.setRemoteAddr(ip);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"));
+    }
+}
@@ -0,0 +1,77 @@
+package amol.com.authmatrixbackend.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class PasswordEncodersTests {
+
+    @Test
+    void legacyHashWithoutAnIdStillMatchesAndIsFlaggedForUpgrade() {
+        PasswordEncoder encoder = PasswordEncoders.delegating(PasswordEncoders.BCRYPT, 4);
+        String legacy = new BCryptPasswordEncoder(4).encode("secret123");
+
+        assertThat(encoder.matches("secret123", legacy)).isTrue();
+        assertThat(encoder.matches("wrong", legacy)).isFalse();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+
+        String upgraded = encoder.encode("secret123");
+        assertThat(upgraded).startsWith("{bcrypt}");
+        assertThat(encoder.upgradeEncoding(upgraded)).isFalse();
+    }
+
+    @Test
+    void otherCostsAndAlgorithmsStillMatchAndAreFlaggedForUpgrade() {
+        PasswordEncoder encoder = PasswordEncoders.delegating(PasswordEncoders.BCRYPT, 5);
+        String weaker = PasswordEncoders.delegating(PasswordEncoders.BCRYPT, 4).encode("secret123");
+        String stronger = PasswordEncoders.delegating(PasswordEncoders.BCRYPT, 6).encode("secret123");
+        String pbkdf2 = PasswordEncoders.delegating(PasswordEncoders.PBKDF2, 1000).encode("secret123");
+        String argon2 = PasswordEncoders.delegating(PasswordEncoders.ARGON2, 1).encode("secret123");
+
+        for (String hash : new String[] { weaker, stronger, pbkdf2, argon2 }) {
+            assertThat(encoder.matches("secret123", hash)).as(hash).isTrue();
+            assertThat(encoder.upgradeEncoding(hash)).as(hash).isTrue();
+        }
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret123"))).isFalse();
+    }
+
+    @Test
+    void pbkdf2HashesRecordTheirIterationsSoACostChangeKeepsThemValid() {
+        String hash = PasswordEncoders.delegating(PasswordEncoders.PBKDF2, 1000).encode("secret123");
+        PasswordEncoder reconfigured = PasswordEncoders.delegating(PasswordEncoders.PBKDF2, 2000);
+
+        assertThat(hash).startsWith("{pbkdf2-1000}");
+        assertThat(reconfigured.matches("secret123", hash)).isTrue();
+        assertThat(reconfigured.matches("wrong", hash)).isFalse();
+        assertThat(reconfigured.upgradeEncoding(hash)).isTrue();
+        assertThat(PasswordEncoders.delegating(PasswordEncoders.PBKDF2, 1000).upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    void argon2CostChangeIsFlaggedForUpgrade() {
+        String hash = PasswordEncoders.delegating(PasswordEncoders.ARGON2, 1).encode("secret123");
+
+        assertThat(PasswordEncoders.delegating(PasswordEncoders.ARGON2, 1).upgradeEncoding(hash)).isFalse();
+        assertThat(PasswordEncoders.delegating(PasswordEncoders.ARGON2, 2).upgradeEncoding(hash)).isTrue();
+    }
+
+    @Test
+    void calibrationNeverGoesBelowTheDefaultCost() {
+        assertThat(PasswordEncoders.calibrate(PasswordEncoders.BCRYPT, Duration.ofNanos(1)))
+                .isEqualTo(PasswordEncoders.defaultCost(PasswordEncoders.BCRYPT));
+        assertThat(PasswordEncoders.calibrate(PasswordEncoders.PBKDF2, Duration.ofNanos(1)))
+                .isEqualTo(PasswordEncoders.defaultCost(PasswordEncoders.PBKDF2));
+    }
+
+    @Test
+    void calibrationScalesIterationsWithTheTarget() {
+        int base = PasswordEncoders.defaultCost(PasswordEncoders.PBKDF2);
+
+        // Far above one sample of the default cost, so the scaled iterations must grow
+        assertThat(PasswordEncoders.calibrate(PasswordEncoders.PBKDF2, Duration.ofSeconds(30))).isGreaterThan(base);
+    }
+}
@@ -0,0 +1,124 @@
+package amol.com.authmatrixbackend.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import amol.com.authmatrixbackend.entity.UserEntity;
+import amol.com.authmatrixbackend.repository.UserRepository;
+import amol.com.authmatrixbackend.service.AppUserDetailsService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PasswordUpgradeServiceTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private AppUserDetailsService appUserDetailsService;
+
+    @Test
+    void loginRehashesALegacyHashWithoutAnId() throws Exception {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret123");
+        String email = saveUser(legacy);
+
+        login(email, "10.6.0.1");
+
+        String stored = awaitPasswordChange(email, legacy);
+        assertThat(stored).startsWith("{bcrypt}");
+        assertThat(passwordEncoder.matches("secret123", stored)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(stored)).isFalse();
+    }
+
+    @Test
+    void loginSurvivesACostChangeAndRehashesAtTheConfiguredCost() throws Exception {
+        // Hashes made before auth.password.cost or the algorithm changed; this context runs bcrypt at the default cost
+        for (String previous : new String[] {
+                PasswordEncoders.delegating(PasswordEncoders.BCRYPT, 4).encode("secret123"),
+                PasswordEncoders.delegating(PasswordEncoders.PBKDF2, 1000).encode("secret123") }) {
+            String email = saveUser(previous);
+
+            login(email, "10.6.0.2");
+
+            String stored = awaitPasswordChange(email, previous);
+            assertThat(stored).startsWith("{bcrypt}$2a$" + PasswordEncoders.defaultCost(PasswordEncoders.BCRYPT) + "$");
+            assertThat(passwordEncoder.upgradeEncoding(stored)).isFalse();
+            login(email, "10.6.0.2");
+        }
+    }
+
+    @Test
+    void upgradeLosesToAConcurrentPasswordChange() {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret123");
+        String email = saveUser(legacy);
+        // A password reset lands between the login reading the old hash and the upgrade writing the new one
+        String reset = passwordEncoder.encode("changed456");
+        UserEntity user = userRepository.findByEmail(email).orElseThrow();
+        user.setPassword(reset);
+        userRepository.save(user);
+
+        UserDetails stale = new User(email, legacy, List.of());
+        UserDetails result = appUserDetailsService.updatePassword(stale, passwordEncoder.encode("secret123"));
+
+        assertThat(result).isSameAs(stale);
+        assertThat(password(email)).isEqualTo(reset);
+        assertThat(userRepository.updatePasswordIfUnchanged(email, legacy, "unused")).isZero();
+    }
+
+    private void login(String email, String ip) throws Exception {
+        mockMvc.perform(post("/login")
+                        .with(request -> { request.setRemoteAddr(ip); return request; })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk());
+    }
+
+    // The upgrade runs after the response on its own thread
+    private String awaitPasswordChange(String email, String previous) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String stored = password(email);
+        while (stored.equals(previous) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            stored = password(email);
+        }
+        return stored;
+    }
+
+    private String saveUser(String password) {
+        String email = "upgrade-" + UUID.randomUUID() + "@example.com";
+        userRepository.save(UserEntity.builder()
+                .email(email)
+                .userId(UUID.randomUUID().toString())
+                .name("Upgrade Test")
+                .password(password)
+                .isAccountVerified(true)
+                .build());
+        return email;
+    }
+
+    private String password(String email) {
+        return userRepository.findByEmail(email).orElseThrow().getPassword();
+    }
+}
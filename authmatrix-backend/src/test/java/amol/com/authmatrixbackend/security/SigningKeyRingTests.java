@@ -0,0 +1,183 @@
+package amol.com.authmatrixbackend.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.security.Key;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+
+class SigningKeyRingTests {
+
+    private MutableClock clock;
+    private InMemorySigningKeyStore store;
+    private SigningKeyRing keyRing;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        store = new InMemorySigningKeyStore();
+        keyRing = newKeyRing();
+    }
+
+    @Test
+    void nextKeyIsPublishedBeforeItSigns() {
+        String first = keyRing.current().kid();
+        String jwks = keyRing.jwks().json();
+
+        clock.advance(Duration.ofDays(30));
+        keyRing.refresh();
+
+        String second = keyRing.current().kid();
+        assertThat(second).isNotEqualTo(first);
+        assertThat(jwks).contains(second);
+    }
+
+    @Test
+    void retiredKeyVerifiesOnlyDuringOverlap() {
+        String retired = keyRing.current().kid();
+        String etag = keyRing.jwks().etag();
+
+        clock.advance(Duration.ofDays(30));
+        keyRing.refresh();
+        assertThat(keyRing.find(retired)).isNotNull();
+        assertThat(keyRing.jwks().etag()).isNotEqualTo(etag);
+
+        clock.advance(Duration.ofDays(1));
+        keyRing.refresh();
+        assertThat(keyRing.find(retired)).isNull();
+        assertThat(keyRing.jwks().json()).doesNotContain(retired);
+        assertThat(store.findAll()).noneMatch(key -> key.kid().equals(retired));
+    }
+
+    @Test
+    void tokenSignedByOneRingVerifiesAgainstAnotherSharingTheStore() {
+        SigningKeyRing otherNode = newKeyRing();
+        SigningKeyRing.SigningKey key = keyRing.current();
+        String token = Jwts.builder()
+                .setSubject("user@example.com")
+                .setHeaderParam(JwsHeader.KEY_ID, key.kid())
+                .signWith(key.keyPair().getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return otherNode.find(header.getKeyId());
+                    }
+                })
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+
+        assertThat(claims.getSubject()).isEqualTo("user@example.com");
+        assertThat(otherNode.current().kid()).isEqualTo(key.kid());
+        assertThat(otherNode.jwks().etag()).isEqualTo(keyRing.jwks().etag());
+    }
+
+    @Test
+    void rotationAndRestartKeepEveryRingOnTheSameKeys() {
+        SigningKeyRing otherNode = newKeyRing();
+        String first = keyRing.current().kid();
+
+        clock.advance(Duration.ofDays(30));
+        keyRing.refresh();
+        otherNode.refresh();
+        assertThat(otherNode.current().kid()).isEqualTo(keyRing.current().kid()).isNotEqualTo(first);
+        assertThat(otherNode.find(first)).isNotNull();
+
+        SigningKeyRing restarted = newKeyRing();
+        assertThat(restarted.current().kid()).isEqualTo(keyRing.current().kid());
+        assertThat(restarted.jwks().json()).isEqualTo(keyRing.jwks().json());
+        // One current, one retired in overlap and one pre-published: concurrent refreshes added no extra keys
+        assertThat(store.findAll()).hasSize(3);
+    }
+
+    @Test
+    void burstOfUnknownKidsReloadsTheStoreOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        InMemorySigningKeyStore countingStore = new InMemorySigningKeyStore() {
+            @Override
+            public List<StoredKey> findAll() {
+                loads.incrementAndGet();
+                try {
+                    Thread.sleep(50); // a slow database keeps the reload in progress while the burst arrives
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.findAll();
+            }
+        };
+        SigningKeyRing ring = new SigningKeyRing(countingStore, clock, Duration.ofDays(30), Duration.ofDays(1));
+        ring.current();
+        clock.advance(Duration.ofSeconds(11));
+        loads.set(0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> lookups = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                lookups.add(executor.submit(() -> assertThat(ring.find(UUID.randomUUID().toString())).isNull()));
+            }
+            for (Future<?> lookup : lookups) {
+                lookup.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(loads).hasValue(1);
+    }
+
+    private SigningKeyRing newKeyRing() {
+        return new SigningKeyRing(store, clock, Duration.ofDays(30), Duration.ofDays(1));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
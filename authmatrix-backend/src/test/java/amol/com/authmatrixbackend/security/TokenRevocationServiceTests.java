@@ -0,0 +1,70 @@
+package amol.com.authmatrixbackend.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import amol.com.authmatrixbackend.util.VerifiedToken;
+
+class TokenRevocationServiceTests {
+
+    private TokenRevocationService nodeA;
+    private TokenRevocationService nodeB;
+
+    @BeforeEach
+    void setUp() {
+        LocalRevocationChannel channel = new LocalRevocationChannel();
+        nodeA = new TokenRevocationService(channel, 1000, Duration.ofHours(10));
+        nodeB = new TokenRevocationService(channel, 1000, Duration.ofHours(10));
+    }
+
+    @Test
+    void revokedTokenIsRejectedOnEveryNode() {
+        VerifiedToken revoked = token("user@example.com", System.currentTimeMillis());
+        VerifiedToken other = token("user@example.com", System.currentTimeMillis());
+
+        nodeA.revoke(revoked);
+
+        assertThat(nodeA.isRevoked(revoked)).isTrue();
+        assertThat(nodeB.isRevoked(revoked)).isTrue();
+        assertThat(nodeB.isRevoked(other)).isFalse();
+    }
+
+    @Test
+    void userWatermarkRejectsOlderTokensOnly() {
+        long now = System.currentTimeMillis();
+        VerifiedToken before = token("user@example.com", now - 60_000);
+        VerifiedToken otherUser = token("other@example.com", now - 60_000);
+
+        nodeA.revokeAllForUser("user@example.com");
+
+        assertThat(nodeB.isRevoked(before)).isTrue();
+        assertThat(nodeB.isRevoked(otherUser)).isFalse();
+        assertThat(nodeB.isRevoked(token("user@example.com", now + 2_000))).isFalse();
+    }
+
+    @Test
+    void pruneKeepsRevocationsUntilTokenExpiry() {
+        VerifiedToken live = token("user@example.com", System.currentTimeMillis());
+        VerifiedToken expired = new VerifiedToken(UUID.randomUUID().toString(), "user@example.com", null, null, null,
+                List.of(), new Date(System.currentTimeMillis() - 1_000), new Date());
+
+        nodeA.revoke(live);
+        nodeA.revoke(expired);
+        nodeA.prune();
+
+        assertThat(nodeA.isRevoked(live)).isTrue();
+        assertThat(nodeA.revokedTokenCount()).isEqualTo(1);
+    }
+
+    private static VerifiedToken token(String email, long issuedAtMillis) {
+        return new VerifiedToken(UUID.randomUUID().toString(), email, null, null, null, List.of(),
+                new Date(issuedAtMillis + 3_600_000), new Date(issuedAtMillis));
+    }
+}
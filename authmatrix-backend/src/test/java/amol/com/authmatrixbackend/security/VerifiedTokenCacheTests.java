@@ -0,0 +1,91 @@
+package amol.com.authmatrixbackend.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import amol.com.authmatrixbackend.entity.UserEntity;
+import amol.com.authmatrixbackend.repository.UserRepository;
+import amol.com.authmatrixbackend.util.JwtUtil;
+import amol.com.authmatrixbackend.util.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class VerifiedTokenCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void cacheHitSkipsSignatureVerificationAndIsCounted() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, meterRegistry);
+        String token = jwtUtil.generateToken(user("cache-hit@example.com"), List.of());
+        AtomicInteger verifications = new AtomicInteger();
+
+        VerifiedToken first = cache.get(token, raw -> {
+            verifications.incrementAndGet();
+            return jwtUtil.verify(raw);
+        });
+        VerifiedToken second = cache.get(token, raw -> {
+            verifications.incrementAndGet();
+            return jwtUtil.verify(raw);
+        });
+
+        assertThat(second).isSameAs(first);
+        assertThat(verifications).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwt.verified").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void revokedTokenIsRejectedEvenWhenCached() throws Exception {
+        UserEntity user = userRepository.save(user("cache-revoked-" + UUID.randomUUID() + "@example.com"));
+        String token = jwtUtil.generateToken(user, List.of());
+        mockMvc.perform(get("/profile").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+        VerifiedToken cached = verifiedTokenCache.getIfPresent(token);
+        assertThat(cached).isNotNull();
+
+        // Revoked without touching the cache, as a revocation from another node arrives
+        tokenRevocationService.revoke(cached);
+
+        assertThat(verifiedTokenCache.getIfPresent(token)).isNotNull();
+        mockMvc.perform(get("/profile").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private static UserEntity user(String email) {
+        return UserEntity.builder()
+                .email(email)
+                .userId(UUID.randomUUID().toString())
+                .name("Cache Test")
+                .password("unused")
+                .isAccountVerified(true)
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package amol.com.authmatrixbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import amol.com.authmatrixbackend.entity.UserEntity;
+import amol.com.authmatrixbackend.repository.UserRepository;
+import amol.com.authmatrixbackend.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Runs with jwt.principal-source=token (see test application.properties)
+@SpringBootTest
+@AutoConfigureMockMvc
+class AppUserDetailsServiceTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AppUserDetailsService appUserDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private OtpStore otpStore;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void cachedPrincipalIsReusedUntilEvicted() {
+        UserEntity user = saveUser(true);
+
+        UserDetails first = appUserDetailsService.loadCachedUserByUsername(user.getEmail());
+        assertThat(appUserDetailsService.loadCachedUserByUsername(user.getEmail())).isSameAs(first);
+
+        appUserDetailsService.evictUser(user.getEmail());
+        assertThat(appUserDetailsService.loadCachedUserByUsername(user.getEmail())).isNotSameAs(first);
+    }
+
+    @Test
+    void tokenModeAuthenticatesFromClaimsWithoutLoadingTheUser() throws Exception {
+        UserEntity user = saveUser(true);
+        String token = jwtUtil.generateToken(user, List.of());
+        double lookups = cacheGets("hit") + cacheGets("miss");
+
+        mockMvc.perform(get("/profile").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        assertThat(cacheGets("hit") + cacheGets("miss")).isEqualTo(lookups);
+    }
+
+    @Test
+    void resetPasswordEvictsTheCachedPrincipal() throws Exception {
+        UserEntity user = saveUser(true);
+        UserDetails before = appUserDetailsService.loadCachedUserByUsername(user.getEmail());
+        otpStore.issue(OtpStore.Purpose.RESET, user.getEmail(), "123456", Duration.ofMinutes(15));
+
+        mockMvc.perform(post("/reset-password")
+                        .with(request -> { request.setRemoteAddr("10.3.0.1"); return request; })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + user.getEmail() + "\",\"otp\":\"123456\",\"newPassword\":\"NewSecret123!\"}"))
+                .andExpect(status().isOk());
+
+        UserDetails after = appUserDetailsService.loadCachedUserByUsername(user.getEmail());
+        assertThat(after).isNotSameAs(before);
+        assertThat(passwordEncoder.matches("NewSecret123!", after.getPassword())).isTrue();
+    }
+
+    @Test
+    void verifyOtpEvictsTheCachedPrincipalAndReissuesAVerifiedToken() throws Exception {
+        UserEntity user = saveUser(false);
+        String token = jwtUtil.generateToken(user, List.of());
+        UserDetails before = appUserDetailsService.loadCachedUserByUsername(user.getEmail());
+        otpStore.issue(OtpStore.Purpose.VERIFY, user.getEmail(), "654321", Duration.ofHours(24));
+
+        String body = mockMvc.perform(post("/verify-otp")
+                        .with(request -> { request.setRemoteAddr("10.3.0.2"); return request; })
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"otp\":\"654321\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.SET_COOKIE, startsWith("jwt=")))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(appUserDetailsService.loadCachedUserByUsername(user.getEmail())).isNotSameAs(before);
+        assertThat(jwtUtil.verify(token).accountVerified()).isFalse();
+        JsonNode response = objectMapper.readTree(body);
+        assertThat(jwtUtil.verify(response.get("jwt").asText()).accountVerified()).isTrue();
+        assertThat(jwtUtil.verify(response.get("jwt").asText()).sessionId()).isEqualTo(jwtUtil.verify(token).sessionId());
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "auth.user-details").tag("result", result)
+                .functionCounter().count();
+    }
+
+    private UserEntity saveUser(boolean verified) {
+        return userRepository.save(UserEntity.builder()
+                .email("principal-" + UUID.randomUUID() + "@example.com")
+                .userId(UUID.randomUUID().toString())
+                .name("Principal Test")
+                .password(passwordEncoder.encode("secret123"))
+                .isAccountVerified(verified)
+                .build());
+    }
+}
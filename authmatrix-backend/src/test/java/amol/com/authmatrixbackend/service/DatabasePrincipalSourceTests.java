@@ -0,0 +1,64 @@
+package amol.com.authmatrixbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import amol.com.authmatrixbackend.entity.UserEntity;
+import amol.com.authmatrixbackend.repository.UserRepository;
+import amol.com.authmatrixbackend.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = "jwt.principal-source=database")
+@AutoConfigureMockMvc
+class DatabasePrincipalSourceTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void requestsReuseTheCachedPrincipal() throws Exception {
+        UserEntity user = userRepository.save(UserEntity.builder()
+                .email("db-principal-" + UUID.randomUUID() + "@example.com")
+                .userId(UUID.randomUUID().toString())
+                .name("Database Principal")
+                .password("unused")
+                .isAccountVerified(true)
+                .build());
+        String token = jwtUtil.generateToken(user, List.of());
+        double misses = cacheGets("miss");
+        double hits = cacheGets("hit");
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/profile").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+
+        assertThat(cacheGets("miss") - misses).isEqualTo(1);
+        assertThat(cacheGets("hit") - hits).isEqualTo(2);
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "auth.user-details").tag("result", result)
+                .functionCounter().count();
+    }
+}
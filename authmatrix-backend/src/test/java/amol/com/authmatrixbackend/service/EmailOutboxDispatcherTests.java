@@ -0,0 +1,112 @@
+package amol.com.authmatrixbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import amol.com.authmatrixbackend.entity.EmailOutboxEntity;
+import amol.com.authmatrixbackend.repository.EmailOutboxRepository;
+import jakarta.mail.internet.MimeMessage;
+
+@SpringBootTest
+class EmailOutboxDispatcherTests {
+
+    // Local fake SMTP server on the port configured in src/test/resources/application.properties
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void queuedEmailsAreDeliveredInOneBatch() throws Exception {
+        emailService.sendOtpEmail("first@example.com", "123456");
+        emailService.sendResetOtpEmail("second@example.com", "654321");
+
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+        assertThat(emailOutboxDispatcher.dispatchPendingEmails()).isEqualTo(2);
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(2);
+        assertThat(GreenMailUtil.getBody(received[0])).contains("123456");
+        assertThat(emailOutboxRepository.findAll())
+                .allMatch(email -> email.getStatus() == EmailOutboxEntity.Status.SENT)
+                .allMatch(email -> email.getBody() == null);
+    }
+
+    @Test
+    void identicalEmailsInOneBatchAreTrackedSeparately() throws Exception {
+        emailService.sendOtpEmail("twice@example.com", "111111");
+        emailService.sendOtpEmail("twice@example.com", "111111");
+
+        assertThat(emailOutboxDispatcher.dispatchPendingEmails()).isEqualTo(2);
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+        assertThat(emailOutboxRepository.findAll())
+                .hasSize(2)
+                .allMatch(email -> email.getStatus() == EmailOutboxEntity.Status.SENT);
+    }
+
+    @Test
+    void finishedEmailsArePurgedAfterTheRetentionPeriod() {
+        emailOutboxRepository.save(EmailOutboxEntity.builder()
+                .recipient("old@example.com")
+                .subject("Old")
+                .status(EmailOutboxEntity.Status.SENT)
+                .nextAttemptAt(0L)
+                .build());
+        emailService.sendWelcomeEmail("pending@example.com", "Pending");
+        jdbcTemplate.update("UPDATE tbl_email_outbox SET created_at = ?",
+                new Timestamp(System.currentTimeMillis() - Duration.ofDays(30).toMillis()));
+
+        assertThat(emailOutboxDispatcher.purgeFinished()).isEqualTo(1);
+
+        assertThat(emailOutboxRepository.findAll())
+                .singleElement()
+                .matches(email -> email.getStatus() == EmailOutboxEntity.Status.PENDING);
+    }
+
+    @Test
+    void failedDeliveryIsRescheduledWithBackoff() {
+        greenMail.stop();
+        try {
+            emailService.sendWelcomeEmail("retry@example.com", "Retry");
+            long before = System.currentTimeMillis();
+
+            assertThat(emailOutboxDispatcher.dispatchPendingEmails()).isZero();
+
+            EmailOutboxEntity email = emailOutboxRepository.findAll().get(0);
+            assertThat(email.getStatus()).isEqualTo(EmailOutboxEntity.Status.PENDING);
+            assertThat(email.getAttempts()).isEqualTo(1);
+            assertThat(email.getNextAttemptAt()).isGreaterThan(before);
+        } finally {
+            greenMail.start();
+        }
+    }
+}
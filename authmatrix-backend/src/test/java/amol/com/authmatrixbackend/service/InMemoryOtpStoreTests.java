@@ -0,0 +1,77 @@
+package amol.com.authmatrixbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class InMemoryOtpStoreTests {
+
+    private final InMemoryOtpStore otpStore = new InMemoryOtpStore();
+
+    @Test
+    void concurrentAttemptsConsumeACodeOnlyOnce() throws Exception {
+        otpStore.issue(OtpStore.Purpose.RESET, "race@example.com", "123456", Duration.ofMinutes(15));
+
+        assertThat(consumeConcurrently(otpStore, "race@example.com", "123456", 8))
+                .containsOnlyOnce(OtpStore.Result.VALID)
+                .filteredOn(result -> result != OtpStore.Result.VALID)
+                .containsOnly(OtpStore.Result.INVALID);
+    }
+
+    @Test
+    void wrongCodeLeavesTheRightOneUsable() {
+        otpStore.issue(OtpStore.Purpose.VERIFY, "typo@example.com", "123456", Duration.ofMinutes(15));
+
+        assertThat(otpStore.verifyAndConsume(OtpStore.Purpose.VERIFY, "typo@example.com", "654321"))
+                .isEqualTo(OtpStore.Result.INVALID);
+        assertThat(otpStore.verifyAndConsume(OtpStore.Purpose.RESET, "typo@example.com", "123456"))
+                .isEqualTo(OtpStore.Result.INVALID);
+        assertThat(otpStore.verifyAndConsume(OtpStore.Purpose.VERIFY, "typo@example.com", "123456"))
+                .isEqualTo(OtpStore.Result.VALID);
+    }
+
+    @Test
+    void expiredCodeIsReportedUntilItIsPurged() {
+        otpStore.issue(OtpStore.Purpose.RESET, "late@example.com", "123456", Duration.ofMinutes(-1));
+        otpStore.issue(OtpStore.Purpose.RESET, "gone@example.com", "123456", Duration.ofMinutes(-11));
+
+        assertThat(otpStore.verifyAndConsume(OtpStore.Purpose.RESET, "late@example.com", "123456"))
+                .isEqualTo(OtpStore.Result.EXPIRED);
+        // Past the grace period the code has been evicted
+        assertThat(otpStore.verifyAndConsume(OtpStore.Purpose.RESET, "gone@example.com", "123456"))
+                .isEqualTo(OtpStore.Result.INVALID);
+    }
+
+    static List<OtpStore.Result> consumeConcurrently(OtpStore otpStore, String email, String otp, int attempts)
+            throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<OtpStore.Result> attempt = () -> {
+            start.await();
+            return otpStore.verifyAndConsume(OtpStore.Purpose.RESET, email, otp);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        try {
+            List<Future<OtpStore.Result>> futures = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                futures.add(executor.submit(attempt));
+            }
+            start.countDown();
+            List<OtpStore.Result> results = new ArrayList<>();
+            for (Future<OtpStore.Result> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package amol.com.authmatrixbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+class JdbcOtpStoreTests {
+
+    @Autowired
+    private JdbcOtpStore otpStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentAttemptsConsumeACodeOnlyOnce() throws Exception {
+        otpStore.issue(OtpStore.Purpose.RESET, "jdbc-race@example.com", "123456", Duration.ofMinutes(15));
+
+        assertThat(InMemoryOtpStoreTests.consumeConcurrently(otpStore, "jdbc-race@example.com", "123456", 8))
+                .containsOnlyOnce(OtpStore.Result.VALID)
+                .filteredOn(result -> result != OtpStore.Result.VALID)
+                .containsOnly(OtpStore.Result.INVALID);
+    }
+
+    @Test
+    void reissuingReplacesTheOutstandingCode() {
+        otpStore.issue(OtpStore.Purpose.VERIFY, "jdbc-reissue@example.com", "111111", Duration.ofMinutes(15));
+        otpStore.issue(OtpStore.Purpose.VERIFY, "jdbc-reissue@example.com", "222222", Duration.ofMinutes(15));
+
+        assertThat(otpStore.verifyAndConsume(OtpStore.Purpose.VERIFY, "jdbc-reissue@example.com", "111111"))
+                .isEqualTo(OtpStore.Result.INVALID);
+        assertThat(otpStore.verifyAndConsume(OtpStore.Purpose.VERIFY, "jdbc-reissue@example.com", "222222"))
+                .isEqualTo(OtpStore.Result.VALID);
+    }
+
+    @Test
+    void expiredCodeIsReportedUntilPurged() {
+        otpStore.issue(OtpStore.Purpose.RESET, "jdbc-late@example.com", "123456", Duration.ofMinutes(-1));
+        otpStore.issue(OtpStore.Purpose.RESET, "jdbc-live@example.com", "123456", Duration.ofMinutes(15));
+
+        assertThat(otpStore.verifyAndConsume(OtpStore.Purpose.RESET, "jdbc-late@example.com", "123456"))
+                .isEqualTo(OtpStore.Result.EXPIRED);
+
+        otpStore.purgeExpired();
+
+        assertThat(otpStore.verifyAndConsume(OtpStore.Purpose.RESET, "jdbc-late@example.com", "123456"))
+                .isEqualTo(OtpStore.Result.INVALID);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tbl_otp WHERE email = ?", Integer.class, "jdbc-live@example.com"))
+                .isEqualTo(1);
+    }
+}
@@ -0,0 +1,72 @@
+package amol.com.authmatrixbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import amol.com.authmatrixbackend.entity.RefreshTokenEntity;
+import amol.com.authmatrixbackend.repository.RefreshTokenRepository;
+
+@SpringBootTest
+class RefreshTokenServiceTests {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Test
+    void concurrentRefreshesWithTheSameTokenShareOneSuccessor() throws Exception {
+        RefreshTokenService.IssuedRefreshToken issued = refreshTokenService.issue("tabs@example.com");
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<RefreshTokenService.IssuedRefreshToken> refresh = () -> {
+            start.await();
+            return refreshTokenService.rotate(issued.token());
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<RefreshTokenService.IssuedRefreshToken>> tabs = IntStream.range(0, 2)
+                    .mapToObj(i -> executor.submit(refresh))
+                    .toList();
+            start.countDown();
+            RefreshTokenService.IssuedRefreshToken first = tabs.get(0).get();
+            RefreshTokenService.IssuedRefreshToken second = tabs.get(1).get();
+
+            assertThat(second.token()).isEqualTo(first.token()).isNotEqualTo(issued.token());
+            assertThat(second.familyId()).isEqualTo(issued.familyId());
+            // The session survived: the shared successor still rotates normally
+            assertThat(refreshTokenService.rotate(first.token()).familyId()).isEqualTo(issued.familyId());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void reusingATokenOlderThanThePreviousOneRevokesTheFamily() {
+        RefreshTokenService.IssuedRefreshToken issued = refreshTokenService.issue("theft@example.com");
+        RefreshTokenService.IssuedRefreshToken second = refreshTokenService.rotate(issued.token());
+        RefreshTokenService.IssuedRefreshToken third = refreshTokenService.rotate(second.token());
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(issued.token()))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate(third.token()))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThat(refreshTokenRepository.findAll())
+                .filteredOn(token -> token.getFamilyId().equals(issued.familyId()))
+                .allMatch(RefreshTokenEntity::isRevoked);
+    }
+}
@@ -0,0 +1,72 @@
+package amol.com.authmatrixbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import amol.com.authmatrixbackend.entity.UserEntity;
+import amol.com.authmatrixbackend.io.IntrospectionResponse;
+import amol.com.authmatrixbackend.repository.UserRepository;
+import amol.com.authmatrixbackend.security.TokenRevocationService;
+import amol.com.authmatrixbackend.security.VerifiedTokenCache;
+import amol.com.authmatrixbackend.util.JwtUtil;
+
+@SpringBootTest
+class TokenIntrospectionServiceTests {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private TokenIntrospectionService service;
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void batchLargerThanTheQueueIsRejectedWithServiceUnavailable() throws Exception {
+        // One thread and one queue slot: the batch is submitted far faster than ES256 verifies
+        service = new TokenIntrospectionService(jwtUtil, verifiedTokenCache, tokenRevocationService, userRepository,
+                List.of("key"), 1, 1);
+        UserEntity user = userRepository.save(UserEntity.builder()
+                .email("introspect-busy-" + UUID.randomUUID() + "@example.com")
+                .userId(UUID.randomUUID().toString())
+                .name("Introspection Busy")
+                .password("unused")
+                .isAccountVerified(true)
+                .build());
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tokens.add(jwtUtil.generateToken(user, List.of()));
+        }
+
+        assertThatThrownBy(() -> service.introspect(tokens))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+        // Once the queue drains a batch that fits is answered
+        Thread.sleep(500);
+        List<IntrospectionResponse.Result> results = service.introspect(List.of(jwtUtil.generateToken(user, List.of())));
+        assertThat(results).singleElement().satisfies(result -> assertThat(result.isActive()).isTrue());
+    }
+}
@@ -4,6 +4,8 @@ import { AppConstants } from "../util/constants.js";
 import { toast } from "react-toastify";
 export const AppContext = createContext();
 
+let refreshPromise = null;
+
 export const AppContextProvider = (props) => {
   axios.defaults.withCredentials = true;
 
@@ -25,19 +27,66 @@ export const AppContextProvider = (props) => {
     }
   }; */
 
-  // Set up axios interceptor to include JWT in headers
-  axios.interceptors.request.use(
-    (config) => {
-      const token = localStorage.getItem("jwt");
-      if (token) {
-        config.headers.Authorization = `Bearer ${token}`;
+  // Registered once, before the auth check below runs; the cleanup ejects them so remounts do not stack copies
+  useEffect(() => {
+    // Set up axios interceptor to include JWT in headers
+    const requestInterceptor = axios.interceptors.request.use(
+      (config) => {
+        const token = localStorage.getItem("jwt");
+        if (token) {
+          config.headers.Authorization = `Bearer ${token}`;
+        }
+        return config;
+      },
+      (error) => {
+        return Promise.reject(error);
       }
-      return config;
-    },
-    (error) => {
-      return Promise.reject(error);
-    }
-  );
+    );
+
+    // Access tokens are short-lived: on a 401, trade the refresh cookie for a new one and retry once.
+    // Concurrent 401s share the same in-flight /refresh call.
+    const responseInterceptor = axios.interceptors.response.use(
+      (response) => response,
+      async (error) => {
+        const original = error.config;
+        const url = original?.url || "";
+        if (
+          error.response?.status !== 401 ||
+          !original ||
+          original._retried ||
+          url.endsWith("/refresh") ||
+          url.endsWith("/login")
+        ) {
+          return Promise.reject(error);
+        }
+        original._retried = true;
+        try {
+          if (!refreshPromise) {
+            refreshPromise = axios
+              .post(backendURL + "/refresh")
+              .then(({ data }) => {
+                localStorage.setItem("jwt", data.jwt);
+                setJwtToken(data.jwt);
+                return data.jwt;
+              })
+              .finally(() => {
+                refreshPromise = null;
+              });
+          }
+          await refreshPromise;
+        } catch (refreshError) {
+          localStorage.removeItem("jwt");
+          return Promise.reject(error);
+        }
+        return axios(original);
+      }
+    );
+
+    return () => {
+      axios.interceptors.request.eject(requestInterceptor);
+      axios.interceptors.response.eject(responseInterceptor);
+    };
+  }, [backendURL]);
 
   const getAuthState = async () => {
     try {
@@ -56,6 +56,10 @@ const EmailVerify = () => {
         }
       );
       if (response.status === 200) {
+        // The access token is re-issued so its verified claim is current
+        if (response.data?.jwt) {
+          localStorage.setItem("jwt", response.data.jwt);
+        }
         toast.success("Email verified successfully!");
         await getUserData();
         navigate("/");
@@ -1,9 +1,47 @@
 import { defineConfig } from "vite";
 import react from "@vitejs/plugin-react";
+import { readdir, readFile, writeFile } from "node:fs/promises";
+import { join } from "node:path";
+import { brotliCompressSync, constants, gzipSync } from "node:zlib";
+
+// Writes .br and .gz next to each compressible build file; the backend serves them by Accept-Encoding
+// (spring resource chain) so nothing is compressed per request
+const COMPRESSIBLE = /\.(js|css|html|svg|json|txt)$/;
+const MIN_SIZE = 1024;
+
+function precompress() {
+  let outDir;
+  return {
+    name: "authmatrix-precompress",
+    apply: "build",
+    configResolved(config) {
+      outDir = config.build.outDir;
+    },
+    async closeBundle() {
+      const files = await readdir(outDir, { recursive: true, withFileTypes: true });
+      for (const file of files) {
+        if (!file.isFile() || !COMPRESSIBLE.test(file.name)) continue;
+        const path = join(file.parentPath ?? file.path, file.name);
+        const content = await readFile(path);
+        if (content.length < MIN_SIZE) continue;
+        await writeFile(`${path}.gz`, gzipSync(content, { level: 9 }));
+        await writeFile(
+          `${path}.br`,
+          brotliCompressSync(content, {
+            params: {
+              [constants.BROTLI_PARAM_QUALITY]: constants.BROTLI_MAX_QUALITY,
+              [constants.BROTLI_PARAM_SIZE_HINT]: content.length,
+            },
+          })
+        );
+      }
+    },
+  };
+}
 
 // https://vite.dev/config/
 export default defineConfig({
-  plugins: [react()],
+  plugins: [react(), precompress()],
   build: {
     outDir: "dist",
   },